@@ -0,0 +1,69 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.benchmarks;
+
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.imoji.sdk.response.CategoriesResponse;
+
+/**
+ * Decodes full category lists, each category carrying a preview imoji and an artist attribution.
+ *
+ * Created by agent on 10/17/26.
+ */
+@State(Scope.Benchmark)
+public class CategoriesResponseBenchmark {
+
+    @Param({"20", "100"})
+    public int categoryCount;
+
+    private String json;
+
+    private Gson typeAdapterGson;
+
+    private Gson deserializerGson;
+
+    @Setup
+    public void setUp() {
+        json = Fixtures.categoriesResponse(categoryCount);
+        typeAdapterGson = Fixtures.typeAdapterGson(false);
+        deserializerGson = Fixtures.deserializerGson();
+    }
+
+    @Benchmark
+    public CategoriesResponse typeAdapter() {
+        return typeAdapterGson.fromJson(json, CategoriesResponse.class);
+    }
+
+    @Benchmark
+    public CategoriesResponse jsonDeserializer() {
+        return deserializerGson.fromJson(json, CategoriesResponse.class);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import io.imoji.sdk.objects.Artist;
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.objects.json.ArtistDeserializer;
+import io.imoji.sdk.objects.json.AttributionDeserializer;
+import io.imoji.sdk.objects.json.CategoryDeserializer;
+import io.imoji.sdk.objects.json.CategoryResultsDeserializer;
+import io.imoji.sdk.objects.json.DecodingTypeAdapterFactory;
+import io.imoji.sdk.objects.json.ImojiDeserializer;
+import io.imoji.sdk.objects.json.ImojiResultsDeserializer;
+import io.imoji.sdk.response.CategoriesResponse;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * Builds response payloads of realistic sizes from the single imoji and category recorded under
+ * src/jmh/resources/fixtures, giving every element a distinct id, along with the Gson instances
+ * the SDK decodes them with.
+ *
+ * Created by agent on 10/17/26.
+ */
+final class Fixtures {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String IMOJI = resource("fixtures/imoji.json");
+
+    private static final String CATEGORY = resource("fixtures/category.json");
+
+    private Fixtures() {
+    }
+
+    /**
+     * The streaming TypeAdapters used by NetworkSession
+     */
+    static Gson typeAdapterGson(boolean lazy) {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.artists())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.categories())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.categoriesResponses())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.imojis())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.imojisResponses(lazy))
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.attributions())
+                .create();
+    }
+
+    /**
+     * The tree based JsonDeserializers
+     */
+    static Gson deserializerGson() {
+        return new GsonBuilder()
+                .registerTypeAdapter(Artist.class, new ArtistDeserializer())
+                .registerTypeAdapter(Category.class, new CategoryDeserializer())
+                .registerTypeAdapter(CategoriesResponse.class, new CategoryResultsDeserializer())
+                .registerTypeAdapter(Imoji.class, new ImojiDeserializer())
+                .registerTypeAdapter(ImojisResponse.class, new ImojiResultsDeserializer())
+                .registerTypeAdapter(Category.Attribution.class, new AttributionDeserializer())
+                .create();
+    }
+
+    /**
+     * @param imojiCount    The number of search results
+     * @param categoryCount The number of related categories
+     * @return A search response body
+     */
+    static String imojisResponse(int imojiCount, int categoryCount) {
+        StringBuilder builder = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < imojiCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            builder.append(imoji("imoji-" + i));
+        }
+
+        builder.append("],\"followupSearchTerm\":\"lol\",\"relatedCategories\":[");
+        appendCategories(builder, categoryCount);
+        builder.append("]}");
+
+        return builder.toString();
+    }
+
+    /**
+     * @param categoryCount The number of categories
+     * @return A categories response body
+     */
+    static String categoriesResponse(int categoryCount) {
+        StringBuilder builder = new StringBuilder("{\"status\":\"SUCCESS\",\"categories\":[");
+        appendCategories(builder, categoryCount);
+        builder.append("]}");
+
+        return builder.toString();
+    }
+
+    static String imoji(String id) {
+        return IMOJI.replace("{id}", id);
+    }
+
+    private static void appendCategories(StringBuilder builder, int categoryCount) {
+        for (int i = 0; i < categoryCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+
+            String id = "category-" + i;
+            builder.append(CATEGORY.replace("{imoji}", imoji(id + "-preview")).replace("{id}", id));
+        }
+    }
+
+    private static String resource(String name) {
+        InputStream inputStream = Fixtures.class.getClassLoader().getResourceAsStream(name);
+        if (inputStream == null) {
+            throw new IllegalStateException("Missing fixture " + name);
+        }
+
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+
+            inputStream.close();
+            return new String(outputStream.toByteArray(), UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read fixture " + name, e);
+        }
+    }
+}
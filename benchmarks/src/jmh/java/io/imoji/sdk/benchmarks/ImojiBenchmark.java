@@ -0,0 +1,74 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.benchmarks;
+
+import android.net.Uri;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.objects.RenderingOptions;
+
+/**
+ * Model methods called for every cell of a sticker grid.
+ *
+ * Created by agent on 10/17/26.
+ */
+@State(Scope.Benchmark)
+public class ImojiBenchmark {
+
+    private Imoji imoji;
+
+    private Imoji equalImoji;
+
+    @Setup
+    public void setUp() {
+        String json = Fixtures.imoji("imoji");
+        imoji = Fixtures.typeAdapterGson(false).fromJson(json, Imoji.class);
+        equalImoji = Fixtures.typeAdapterGson(false).fromJson(json, Imoji.class);
+    }
+
+    @Benchmark
+    public Uri standardThumbnailUri() {
+        return imoji.getStandardThumbnailUri();
+    }
+
+    @Benchmark
+    public Uri urlForRenderingOption() {
+        return imoji.urlForRenderingOption(RenderingOptions.borderedWebThumbnail());
+    }
+
+    @Benchmark
+    public boolean equalsImoji() {
+        return imoji.equals(equalImoji);
+    }
+
+    @Benchmark
+    public int hashCodeImoji() {
+        return imoji.hashCode();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+
+import io.imoji.sdk.objects.ImojiCodec;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * Round trips search responses through ImojiCodec, which backs ImojisResponse's Parcelable
+ * implementation. Parcel itself relies on native code and can only be measured on a device.
+ *
+ * Created by agent on 10/17/26.
+ */
+@State(Scope.Benchmark)
+public class ImojiCodecBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int imojiCount;
+
+    private ImojisResponse response;
+
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        response = Fixtures.typeAdapterGson(false).fromJson(
+                Fixtures.imojisResponse(imojiCount, 3), ImojisResponse.class
+        );
+        encoded = ImojiCodec.encode(response);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ImojiCodec.encode(response);
+    }
+
+    @Benchmark
+    public ImojisResponse decode() throws IOException {
+        return ImojiCodec.decodeImojisResponse(encoded);
+    }
+
+    @Benchmark
+    public ImojisResponse roundTrip() throws IOException {
+        return ImojiCodec.decodeImojisResponse(ImojiCodec.encode(response));
+    }
+}
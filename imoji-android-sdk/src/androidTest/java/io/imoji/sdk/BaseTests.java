@@ -25,6 +25,7 @@ package io.imoji.sdk;
 
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
+import android.os.Looper;
 import android.os.Parcel;
 import android.support.annotation.NonNull;
 import android.test.AndroidTestCase;
@@ -40,6 +41,7 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -47,15 +49,24 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import io.imoji.sdk.internal.ApiSession;
 import io.imoji.sdk.objects.Artist;
 import io.imoji.sdk.objects.Category;
 import io.imoji.sdk.objects.CategoryFetchOptions;
 import io.imoji.sdk.objects.CollectionType;
 import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.objects.ImojiCodec;
 import io.imoji.sdk.objects.RenderingOptions;
+import io.imoji.sdk.objects.json.StringInterner;
+import io.imoji.sdk.response.ApiResponse;
 import io.imoji.sdk.response.CategoriesResponse;
 import io.imoji.sdk.response.CreateImojiResponse;
 import io.imoji.sdk.response.GenericApiResponse;
@@ -94,6 +105,114 @@ public class BaseTests extends AndroidTestCase {
         latch.await();
     }
 
+    public void testEnqueuedSearch() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        sdkSession.searchImojis("haha").enqueue(new ApiTask.Callback<ImojisResponse>() {
+            @Override
+            public void onSuccess(ImojisResponse imojisResponse) {
+                assertEquals(Looper.getMainLooper(), Looper.myLooper());
+                validateImojiResponse(imojisResponse);
+                latch.countDown();
+            }
+        });
+
+        latch.await();
+    }
+
+    public void testCancelledSearch() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ApiTask<ImojisResponse> task = sdkSession.searchImojis("cancelled");
+        task.enqueue(new ApiTask.Callback<ImojisResponse>() {
+            @Override
+            public void onSuccess(ImojisResponse imojisResponse) {
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable error) {
+                failure.set(error);
+                latch.countDown();
+            }
+        });
+
+        assertTrue(task.cancel());
+        latch.await();
+
+        assertTrue(task.isCancelled());
+        assertTrue(failure.get() instanceof CancellationException);
+    }
+
+    public void testLazySearch() throws Exception {
+        Session lazySession = ImojiSDK.getInstance()
+                .setLazyResultDecodingEnabled(true)
+                .createSession(getContext());
+        ImojiSDK.getInstance().setLazyResultDecodingEnabled(false);
+
+        ImojisResponse lazyResponse = lazySession.searchImojis("haha").executeImmediately();
+        ImojisResponse imojisResponse = sdkSession.searchImojis("haha").executeImmediately();
+
+        validateImojiResponse(lazyResponse);
+        assertEquals(imojisResponse.getImojis(), lazyResponse.getImojis());
+        assertSame(lazyResponse.getImojis().get(0), lazyResponse.getImojis().get(0));
+        assertEquals(imojisResponse.getRelatedCategories(), lazyResponse.getRelatedCategories());
+    }
+
+    public void testStreamingSearch() throws Exception {
+        final List<Imoji> streamedImojis = new ArrayList<>();
+        final AtomicInteger misdeliveredCallbacks = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        ImojisResponse imojisResponse = sdkSession.searchImojis("haha", null, null, new ImojiResultListener() {
+            @Override
+            public void onImoji(@NonNull Imoji imoji, int index) {
+                if (Looper.myLooper() != Looper.getMainLooper() || index != streamedImojis.size()) {
+                    misdeliveredCallbacks.incrementAndGet();
+                }
+                streamedImojis.add(imoji);
+            }
+
+            @Override
+            public void onComplete(@NonNull ImojisResponse response) {
+                if (Looper.myLooper() != Looper.getMainLooper()) {
+                    misdeliveredCallbacks.incrementAndGet();
+                }
+                latch.countDown();
+            }
+        }).executeImmediately();
+
+        latch.await();
+        validateImojiResponse(imojisResponse);
+        assertEquals(imojisResponse.getImojis(), streamedImojis);
+        assertEquals(0, misdeliveredCallbacks.get());
+    }
+
+    public void testStreamingSearchOnExecutor() throws Exception {
+        final List<Imoji> streamedImojis = Collections.synchronizedList(new ArrayList<Imoji>());
+        final AtomicReference<ImojisResponse> completedResponse = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+
+        ImojisResponse imojisResponse = sdkSession.searchImojis("haha", null, null, new ImojiResultListener() {
+            @Override
+            public void onImoji(@NonNull Imoji imoji, int index) {
+                streamedImojis.add(imoji);
+            }
+
+            @Override
+            public void onComplete(@NonNull ImojisResponse response) {
+                completedResponse.set(response);
+                latch.countDown();
+            }
+        }, listenerExecutor).executeImmediately();
+
+        latch.await();
+        listenerExecutor.shutdown();
+        assertSame(imojisResponse, completedResponse.get());
+        assertEquals(imojisResponse.getImojis(), streamedImojis);
+    }
+
     public void testFeatured() throws Exception {
         final CountDownLatch latch = new CountDownLatch(1);
         sdkSession.getFeaturedImojis(40).executeAsyncTask(new ApiTask.WrappedAsyncTask<ImojisResponse>() {
@@ -357,6 +476,84 @@ public class BaseTests extends AndroidTestCase {
         latch.await();
     }
 
+    public void testImojisResponseAsParcelable() throws Exception {
+        ImojisResponse imojisResponse = sdkSession.searchImojis("haha").executeImmediately();
+        validateImojiResponse(imojisResponse);
+
+        Parcel parcel = Parcel.obtain();
+
+        imojisResponse.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+        ImojisResponse fromParcel = ImojisResponse.CREATOR.createFromParcel(parcel);
+
+        assertEquals(imojisResponse.getImojis(), fromParcel.getImojis());
+        assertEquals(imojisResponse.getRelatedCategories(), fromParcel.getRelatedCategories());
+        assertEquals(imojisResponse.getFollowupSearchTerm(), fromParcel.getFollowupSearchTerm());
+        assertEquals(
+                imojisResponse.getImojis().get(0).getStandardThumbnailUri(),
+                fromParcel.getImojis().get(0).getStandardThumbnailUri()
+        );
+    }
+
+    public void testResponseCache() throws Exception {
+        ResponseCache responseCache = ImojiSDK.getInstance().getResponseCache();
+        assertNotNull(responseCache);
+
+        CategoriesResponse categoriesResponse = sdkSession.getImojiCategories(
+                new CategoryFetchOptions(Category.Classification.Trending)
+        ).executeImmediately();
+        assertNotNull(categoriesResponse);
+        assertTrue(responseCache.size() <= responseCache.maxSize());
+
+        responseCache.evictAll();
+        assertEquals(0, responseCache.size());
+    }
+
+    public void testTransferStatistics() throws Exception {
+        validateImojiResponse(sdkSession.searchImojis("haha").executeImmediately());
+
+        TransferStatistics statistics = sdkSession.getTransferStatistics();
+        assertTrue(statistics.getCompressedBytes() + statistics.getUncompressedBytes() > 0);
+        assertTrue(statistics.getDecompressedBytes() >= statistics.getCompressedBytes());
+    }
+
+    public void testStringDeserializationHook() throws Exception {
+        final AtomicInteger deserializedResponses = new AtomicInteger();
+        Session session = new ApiSession(StoragePolicy.createWithContext(getContext())) {
+            @Override
+            @SuppressWarnings("deprecation")
+            protected <T extends ApiResponse> T deserializeJsonResponse(@NonNull Class<T> responseClass,
+                                                                        @NonNull String jsonContents) {
+                deserializedResponses.incrementAndGet();
+                return super.deserializeJsonResponse(responseClass, jsonContents);
+            }
+        };
+
+        validateImojiResponse(session.searchImojis("haha").executeImmediately());
+        assertTrue(deserializedResponses.get() > 0);
+    }
+
+    public void testCorruptImojiCodecStream() throws Exception {
+        ImojisResponse imojisResponse = sdkSession.searchImojis("haha").executeImmediately();
+        byte[] encoded = ImojiCodec.encode(imojisResponse);
+
+        try {
+            ImojiCodec.decodeImojisResponse(Arrays.copyOf(encoded, encoded.length / 2));
+            fail("Decoded a truncated stream");
+        } catch (IOException e) {
+            // expected
+        }
+
+        // the magic, version 1 and an imoji count of -1
+        byte[] negativeCount = {'I', 'M', 'J', 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        try {
+            ImojiCodec.decodeImojisResponse(negativeCount);
+            fail("Decoded a negative count");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
     public void testEmptyTaggedImojiAsParcelable() throws Exception {
         Imoji imoji = new Imoji(UUID.randomUUID().toString(),
                 Collections.<String>emptyList(),
@@ -373,6 +570,133 @@ public class BaseTests extends AndroidTestCase {
         assertEquals(fromParcel, imoji);
     }
 
+    public void testCanonicalRenderingOptions() throws Exception {
+        RenderingOptions renderingOptions = RenderingOptions.get(
+                RenderingOptions.BorderStyle.Sticker, RenderingOptions.ImageFormat.Png, RenderingOptions.Size.Thumbnail
+        );
+
+        assertSame(renderingOptions, RenderingOptions.borderedPngThumbnail());
+        assertSame(renderingOptions, RenderingOptions.fromOrdinal(renderingOptions.getOrdinal()));
+
+        Parcel parcel = Parcel.obtain();
+
+        renderingOptions.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        assertSame(renderingOptions, RenderingOptions.CREATOR.createFromParcel(parcel));
+    }
+
+    public void testStringInterner() throws Exception {
+        StringInterner interner = StringInterner.getInstance();
+        String tag = new String("interned-tag");
+
+        assertSame(tag, interner.intern(tag));
+
+        long bytesSaved = interner.getBytesSaved();
+        assertSame(tag, interner.intern(new String("interned-tag")));
+        assertTrue(interner.getBytesSaved() > bytesSaved);
+    }
+
+    public void testRetryPolicyBackoff() throws Exception {
+        RetryPolicy retryPolicy = new RetryPolicy(5, 100, 1000, TimeUnit.MILLISECONDS);
+
+        for (int retry = 0; retry < 5; retry++) {
+            long maxBackoff = Math.min(1000, 100 << retry);
+            long backoff = retryPolicy.getBackoff(retry);
+
+            assertTrue(backoff >= maxBackoff / 2);
+            assertTrue(backoff <= maxBackoff);
+        }
+
+        assertEquals(0, RetryPolicy.NONE.getBackoff(0));
+    }
+
+    public void testTaskComposition() throws Exception {
+        ApiTask<CategoriesResponse> categoriesTask = sdkSession.getImojiCategories(Category.Classification.Trending);
+        ApiTask<ImojisResponse> featuredTask = sdkSession.getFeaturedImojis();
+
+        List<ApiResponse> responses = ApiTask.allOf(Arrays.<ApiTask<? extends ApiResponse>>asList(categoriesTask, featuredTask))
+                .executeImmediately(Executors.newFixedThreadPool(2));
+
+        assertEquals(2, responses.size());
+
+        Integer imojiCount = sdkSession.searchImojis("test").map(new ApiTask.Function<ImojisResponse, Integer>() {
+            @Override
+            public Integer apply(ImojisResponse response) {
+                return response.getImojis().size();
+            }
+        }).executeImmediately();
+
+        assertTrue(imojiCount > 0);
+    }
+
+    public void testTaskLanes() throws Exception {
+        assertEquals(ApiTask.Lane.INTERACTIVE, sdkSession.searchImojis("haha").getLane());
+        assertEquals(ApiTask.Lane.ANALYTICS, sdkSession.markImojiUsage("imojiId", null).getLane());
+
+        ImojisResponse imojisResponse = sdkSession.getFeaturedImojis()
+                .setLane(ApiTask.Lane.PREFETCH)
+                .execute()
+                .get();
+
+        validateImojiResponse(imojisResponse);
+    }
+
+    public void testExecutorPolicy() throws Exception {
+        ImojiSDK.getInstance().setExecutorPolicy(
+                new ExecutorPolicy(2, 8, ExecutorPolicy.RejectionPolicy.ABORT, 1, TimeUnit.SECONDS)
+        );
+
+        try {
+            ImojisResponse imojisResponse = sdkSession.searchImojis("haha").execute().get();
+            validateImojiResponse(imojisResponse);
+
+            TaskStatistics taskStatistics = ImojiSDK.getInstance().getTaskStatistics();
+            assertEquals(2, ImojiSDK.getInstance().getExecutorPolicy().getMaxThreads());
+            assertEquals(0, taskStatistics.getRejectedCount());
+            assertTrue(taskStatistics.getCompletedCount() > 0);
+        } finally {
+            ImojiSDK.getInstance().setExecutorPolicy(ExecutorPolicy.DEFAULT);
+        }
+    }
+
+    public void testFullLane() throws Exception {
+        ImojiSDK.getInstance().setExecutorPolicy(
+                new ExecutorPolicy(2, 1, ExecutorPolicy.RejectionPolicy.ABORT, 1, TimeUnit.SECONDS)
+        );
+
+        try {
+            final int count = 5;
+            final CountDownLatch latch = new CountDownLatch(count);
+            final AtomicInteger errors = new AtomicInteger();
+
+            // the analytics lane runs one task at a time, the others wait in or overflow its queue
+            for (int i = 0; i < count; i++) {
+                sdkSession.markImojiUsage("imojiId", null).executeAsyncTask(new ApiTask.WrappedAsyncTask<GenericApiResponse>() {
+                    @Override
+                    protected void onPostExecute(GenericApiResponse genericApiResponse) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    protected void onCancelled() {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    protected void onError(@NonNull Throwable error) {
+                        errors.incrementAndGet();
+                    }
+                });
+            }
+
+            latch.await();
+            assertTrue(errors.get() > 0);
+        } finally {
+            ImojiSDK.getInstance().setExecutorPolicy(ExecutorPolicy.DEFAULT);
+        }
+    }
+
     public void testCategoriesWithLicenseStyles() throws Exception {
         final CountDownLatch latch = new CountDownLatch(1);
         CategoryFetchOptions fetchOptions = new CategoryFetchOptions(Category.Classification.Artist);
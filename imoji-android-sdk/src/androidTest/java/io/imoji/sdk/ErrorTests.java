@@ -29,7 +29,10 @@ import android.util.Log;
 
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import io.imoji.sdk.internal.ApiTimeoutException;
 import io.imoji.sdk.response.ImojisResponse;
 
 /**
@@ -87,4 +90,22 @@ public class ErrorTests extends AndroidTestCase {
         );
     }
 
+    public void testTimeout() throws Exception {
+        try {
+            sdkSession.searchImojis("haha")
+                    .setTimeout(1, TimeUnit.MILLISECONDS)
+                    .executeImmediately();
+
+            // should not get here
+            fail();
+        } catch (ExecutionException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof ApiTimeoutException)) {
+                cause = cause.getCause();
+            }
+
+            assertNotNull(cause);
+        }
+    }
+
 }
@@ -26,21 +26,35 @@ package io.imoji.sdk;
 import android.annotation.TargetApi;
 import android.os.AsyncTask;
 import android.os.Build;
-import android.os.Handler;
-import android.os.Looper;
-import android.os.Message;
+import android.os.Process;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.util.Log;
 import android.util.Pair;
 
+import io.imoji.sdk.internal.ApiFuture;
+import io.imoji.sdk.internal.CancellationToken;
+import io.imoji.sdk.internal.Deadline;
+import io.imoji.sdk.internal.MainThreadExecutor;
+import io.imoji.sdk.internal.TaskDispatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a top level task returned by API calls that can be ran as an AsyncTask or immediately
@@ -53,22 +67,14 @@ import java.util.concurrent.TimeUnit;
  */
 public class ApiTask<V> {
 
-    /**
-     * HTTP Executor settings borrowed from Bolts-Android's AndroidExecutors.newCachedThreadPool
-     * https://github.com/BoltsFramework/Bolts-Android/blob/master/bolts-tasks/src/main/java/bolts/AndroidExecutors.java
-     */
     private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
-    private static final int THREAD_POOL_CORE_SIZE = CPU_COUNT + 2;
-    private static final int THREAD_POOL_MAX_SIZE = CPU_COUNT * 2 + 2;
     private static final long THREAD_POOL_KEEP_ALIVE_TIME = 1L;
-    private static final ExecutorService THREAD_POOL_EXECUTOR_SERVICE = new ThreadPoolExecutor(
-            THREAD_POOL_CORE_SIZE,
-            THREAD_POOL_MAX_SIZE,
-            THREAD_POOL_KEEP_ALIVE_TIME,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<Runnable>()
-    );
 
+    /**
+     * @deprecated Sessions keep their OAuth token in memory and no longer validate it on a
+     * dedicated executor. Retained for source compatibility only.
+     */
+    @Deprecated
     public static final ExecutorService THREAD_POOL_EXECUTOR_VALIDATE = new ThreadPoolExecutor(
             1,
             1,
@@ -77,7 +83,56 @@ public class ApiTask<V> {
             new LinkedBlockingQueue<Runnable>()
     );
 
-    private static final int WRAPPED_ASYNC_ERROR_MESSAGE = 1;
+    /**
+     * The scheduling lanes of tasks, from the most to the least urgent. Each lane has its own
+     * concurrency limit and thread priority, and queued tasks of a lane run before those of the
+     * lanes after it.
+     */
+    public enum Lane {
+        /**
+         * Calls the user is waiting on, such as searches. The default lane, only limited by the
+         * number of threads of the ExecutorPolicy.
+         */
+        INTERACTIVE(Integer.MAX_VALUE, Process.THREAD_PRIORITY_DEFAULT),
+
+        /**
+         * Uploads of new imojis, one at a time
+         */
+        UPLOAD(1, Process.THREAD_PRIORITY_BACKGROUND),
+
+        /**
+         * Calls fetching content ahead of the user needing it
+         */
+        PREFETCH(CPU_COUNT, Process.THREAD_PRIORITY_BACKGROUND),
+
+        /**
+         * Fire and forget calls such as markImojiUsage, one at a time
+         */
+        ANALYTICS(1, Process.THREAD_PRIORITY_LOWEST);
+
+        private final int maxConcurrency;
+
+        private final int threadPriority;
+
+        Lane(int maxConcurrency, int threadPriority) {
+            this.maxConcurrency = maxConcurrency;
+            this.threadPriority = threadPriority;
+        }
+
+        /**
+         * @return The maximum number of tasks of the lane running at once
+         */
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        /**
+         * @return The priority of the threads running tasks of the lane, see android.os.Process
+         */
+        public int getThreadPriority() {
+            return threadPriority;
+        }
+    }
 
     /**
      * A wrapped convenience class for running ApiTask's for Imoji SDK calls. Callers need to
@@ -94,27 +149,34 @@ public class ApiTask<V> {
                 task.run();
                 return task.get();
             } catch (ExecutionException e) {
-                Log.e(ApiTask.class.getName(), "Unable to perform async task, cancelling…", e);
-                Message message = MAIN_LOOP_HANDLER.obtainMessage(
-                        WRAPPED_ASYNC_ERROR_MESSAGE,
-                        new Pair<WrappedAsyncTask<?>, Throwable>(this, e)
-                );
-                MAIN_LOOP_HANDLER.dispatchMessage(message);
-
-                // cancel the task and have the caller handle the case in onCancelled and/or onError
-                this.cancel(true);
-
+                this.fail(e, true);
                 return null;
             } catch (InterruptedException e) { // interrupts will naturally occur from cancelling
                 return null;
             }
         }
 
+        /**
+         * Notifies onError on the main thread and cancels the task
+         */
+        private void fail(@NonNull final Throwable error, boolean mayInterruptIfRunning) {
+            Log.e(ApiTask.class.getName(), "Unable to perform async task, cancelling…", error);
+            MainThreadExecutor.getInstance().execute(new Runnable() {
+                @Override
+                public void run() {
+                    onError(error);
+                }
+            });
+
+            // cancel the task and have the caller handle the case in onCancelled and/or onError
+            this.cancel(mayInterruptIfRunning);
+        }
+
         @Override
         protected abstract void onPostExecute(V v);
 
         /**
-         * Called when the ApiTask encounters an error.
+         * Called on the main thread when the ApiTask encounters an error.
          *
          * @param error The error that occurred making the API call.
          */
@@ -123,47 +185,141 @@ public class ApiTask<V> {
         }
     }
 
-    private static class MainLoopDispatchHandler extends Handler {
-        public MainLoopDispatchHandler() {
-            super(Looper.getMainLooper());
+    /**
+     * Runs tasks on the thread starting them, used to run a task and the stages chained to it
+     * without handing them off to another thread
+     */
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
         }
+    };
 
-        @Override
-        public void handleMessage(Message msg) {
-            if (msg.what == WRAPPED_ASYNC_ERROR_MESSAGE) {
-                @SuppressWarnings("unchecked")
-                Pair<WrappedAsyncTask<?>, Throwable> details
-                        = (Pair<WrappedAsyncTask<?>, Throwable>) msg.obj;
-                details.first.onError(details.second);
-            }
+    /**
+     * Transforms the value of a task, see map
+     */
+    public interface Function<I, O> {
+        O apply(I input) throws Exception;
+    }
+
+    /**
+     * Creates the task to run once the value of a previous task is known, see then
+     */
+    public interface Continuation<I, O> {
+        @NonNull
+        ApiTask<O> then(I input) throws Exception;
+    }
+
+    /**
+     * Receives the outcome of a task, see enqueue and addCallback. Callers need to override
+     * onSuccess.
+     *
+     * @param <V>
+     */
+    public static abstract class Callback<V> {
+        public abstract void onSuccess(V value);
+
+        /**
+         * Called when the ApiTask encounters an error.
+         *
+         * @param error The error that occurred making the API call.
+         */
+        @SuppressWarnings("UnusedParameters")
+        public void onFailure(@NonNull Throwable error) {
         }
     }
 
-    private static final Handler MAIN_LOOP_HANDLER = new MainLoopDispatchHandler();
+    @Nullable
+    private final Callable<V> callable;
+
+    private final ApiFuture<V> result = new ApiFuture<>();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final CancellationToken cancellationToken = new CancellationToken();
+
+    /**
+     * The deadline of the task which created this one, if any
+     */
+    private final Deadline inheritedDeadline;
+
+    private volatile long timeout;
+
+    @NonNull
+    private volatile Lane lane = Lane.INTERACTIVE;
+
+    public ApiTask(@NonNull Callable<V> callable) {
+        this.callable = callable;
+        this.inheritedDeadline = Deadline.current();
+        this.cancelTokenWithResult();
+    }
+
+    /**
+     * Creates a task whose result is produced by overriding run rather than by a callable
+     */
+    private ApiTask() {
+        this.callable = null;
+        this.inheritedDeadline = Deadline.current();
+        this.cancelTokenWithResult();
+    }
+
+    /**
+     * Sets the maximum time the task may take once it starts running, including acquiring an OAuth
+     * token, making the request and decoding its response. Tasks created by a running task share
+     * its remaining time. When the time runs out the connection in use is aborted and the task
+     * fails with an ApiTimeoutException. Must be called before the task is executed.
+     *
+     * @param timeout  The maximum duration of the task, 0 for no limit
+     * @param timeUnit The unit of timeout
+     * @return This task
+     */
+    public ApiTask<V> setTimeout(long timeout, @NonNull TimeUnit timeUnit) {
+        this.timeout = timeUnit.toMillis(timeout);
+
+        return this;
+    }
+
+    /**
+     * Sets the lane the task is scheduled in when it is executed with execute, enqueue or
+     * executeAsyncTask. Tasks chained to this one with map or then inherit its lane. Must be called
+     * before the task is executed.
+     *
+     * @param lane The lane to schedule the task in
+     * @return This task
+     */
+    public ApiTask<V> setLane(@NonNull Lane lane) {
+        this.lane = lane;
 
-    private final FutureTask<V> scheduledTask;
+        return this;
+    }
 
-    public ApiTask(Callable<V> callable) {
-        this.scheduledTask = new FutureTask<>(callable);
+    /**
+     * @return The lane the task is scheduled in
+     */
+    @NonNull
+    public Lane getLane() {
+        return lane;
     }
 
     /**
      * Executes the task as an AsyncTask. Callers must create an instance of WrappedAsyncTask
-     * and override onPostExecute to get the value of the Api call. The default ExecutorService
-     * used is the same as the default one used by AsyncTask itself. Use executeAsyncTaskOnExecutor
-     * to supply your own ExecutorService.
+     * and override onPostExecute to get the value of the Api call. The task is scheduled in its
+     * lane, see setLane. Use executeAsyncTaskOnExecutor to supply your own ExecutorService.
      *
      * @param asyncTask A wrapped async task instance
      * @return The executed async task. Callers can perform any operation on the WrappedAsyncTask
      * as a standard AsyncTask such as cancelling it.
      */
     @SuppressWarnings("unchecked")
+    @TargetApi(Build.VERSION_CODES.HONEYCOMB)
     public AsyncTask<Future<V>, Void, V> executeAsyncTask(@NonNull WrappedAsyncTask<V> asyncTask) {
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.HONEYCOMB) {
-            return this.executeAsyncTaskOnExecutor(asyncTask, THREAD_POOL_EXECUTOR_SERVICE);
+            Executor laneExecutor = ImojiSDK.getInstance().getTaskDispatcher().executorFor(lane);
+            return asyncTask.executeOnExecutor(new AsyncTaskExecutor(asyncTask, laneExecutor), this.inlineFutureTask());
         }
 
-        return asyncTask.execute((Future<V>) this.scheduledTask);
+        return asyncTask.execute((Future<V>) this.inlineFutureTask());
     }
 
     /**
@@ -179,7 +335,25 @@ public class ApiTask<V> {
     @SuppressWarnings("unchecked")
     public AsyncTask<Future<V>, Void, V> executeAsyncTaskOnExecutor(@NonNull WrappedAsyncTask<V> asyncTask,
                                                                     @NonNull ExecutorService executorService) {
-        return asyncTask.executeOnExecutor(executorService, this.scheduledTask);
+        return asyncTask.executeOnExecutor(executorService, this.inlineFutureTask());
+    }
+
+    /**
+     * Cancels the task. A network request in progress is aborted rather than left to complete, the
+     * tasks it started, such as acquiring an OAuth token, are cancelled as well and callbacks
+     * receive a CancellationException. Identical calls sharing its request perform it again.
+     *
+     * @return False if the task had already completed
+     */
+    public boolean cancel() {
+        return result.cancel(true);
+    }
+
+    /**
+     * @return True if the task was cancelled before it completed
+     */
+    public boolean isCancelled() {
+        return result.isCancelled();
     }
 
     /**
@@ -191,8 +365,8 @@ public class ApiTask<V> {
      * @see ExecutorService
      */
     public V executeImmediately() throws ExecutionException, InterruptedException {
-        scheduledTask.run();
-        return scheduledTask.get();
+        this.start(DIRECT_EXECUTOR, Deadline.current(), CancellationToken.current());
+        return result.get();
     }
 
     /**
@@ -205,7 +379,480 @@ public class ApiTask<V> {
      * @see ExecutorService
      */
     public V executeImmediately(@NonNull ExecutorService executorService) throws ExecutionException, InterruptedException {
-        executorService.submit(scheduledTask);
-        return scheduledTask.get();
+        this.start(executorService, Deadline.current(), CancellationToken.current());
+        return result.get();
+    }
+
+    /**
+     * Starts the task in its lane without waiting for it to complete. Use addCallback or the
+     * returned Future to get its value.
+     *
+     * @return The pending result of the task
+     */
+    @NonNull
+    public Future<V> execute() {
+        return this.execute(ImojiSDK.getInstance().getTaskDispatcher().executorFor(lane));
+    }
+
+    /**
+     * Starts the task on the supplied Executor without waiting for it to complete. Tasks chained
+     * with then or map continue on the thread which completed the previous stage, tasks combined
+     * with allOf or zip are started concurrently on executor.
+     *
+     * @param executor The executor to run on
+     * @return The pending result of the task
+     */
+    @NonNull
+    public Future<V> execute(@NonNull Executor executor) {
+        this.start(executor, Deadline.current(), CancellationToken.current());
+        return result;
+    }
+
+    /**
+     * Starts the task in its lane and delivers its outcome to callback on the main thread.
+     * Outcomes of calls completing close together are delivered in a single main looper message.
+     *
+     * @param callback The callback to notify on the main thread
+     * @return The pending result of the task
+     */
+    @NonNull
+    public Future<V> enqueue(@NonNull Callback<? super V> callback) {
+        return this.enqueue(callback, MainThreadExecutor.getInstance());
+    }
+
+    /**
+     * Starts the task in its lane and delivers its outcome to callback on callbackExecutor. Unlike
+     * executeAsyncTask this does not create an AsyncTask per call.
+     *
+     * @param callback         The callback to notify
+     * @param callbackExecutor The executor to notify callback on
+     * @return The pending result of the task
+     */
+    @NonNull
+    public Future<V> enqueue(@NonNull Callback<? super V> callback, @NonNull Executor callbackExecutor) {
+        this.addCallback(callback, callbackExecutor);
+        return this.execute();
+    }
+
+    /**
+     * Registers a callback for the outcome of the task. The callback does not start the task and
+     * runs on the thread completing it, or immediately if the task already completed.
+     *
+     * @param callback The callback to notify
+     * @return This task
+     */
+    public ApiTask<V> addCallback(@NonNull Callback<? super V> callback) {
+        return this.addCallback(callback, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Registers a callback for the outcome of the task, notified on callbackExecutor. The callback
+     * does not start the task.
+     *
+     * @param callback         The callback to notify
+     * @param callbackExecutor The executor to notify callback on
+     * @return This task
+     */
+    public ApiTask<V> addCallback(@NonNull final Callback<? super V> callback,
+                                  @NonNull final Executor callbackExecutor) {
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                callbackExecutor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        V value;
+                        try {
+                            value = result.get();
+                        } catch (ExecutionException e) {
+                            callback.onFailure(e.getCause());
+                            return;
+                        } catch (CancellationException | InterruptedException e) {
+                            callback.onFailure(e);
+                            return;
+                        }
+
+                        callback.onSuccess(value);
+                    }
+                });
+            }
+        }, DIRECT_EXECUTOR);
+
+        return this;
+    }
+
+    /**
+     * Creates a task applying function to the value of this one. The function runs on the thread
+     * which completed this task.
+     *
+     * @param function The transformation to apply
+     * @return A task resolving to the transformed value, failing if either this task or the
+     * function fail
+     */
+    @NonNull
+    public <R> ApiTask<R> map(@NonNull final Function<? super V, ? extends R> function) {
+        final ApiTask<V> source = this;
+        return new ApiTask<R>() {
+            @Override
+            void run(@NonNull Executor executor,
+                     @Nullable final Deadline deadline,
+                     @NonNull final CancellationToken token,
+                     @NonNull final ApiFuture<R> result) {
+                source.start(executor, deadline, token);
+                source.result.addListener(new TaskRunnable(result) {
+                    @Override
+                    public void run() {
+                        if (result.isDone()) {
+                            return;
+                        }
+
+                        Deadline previous = Deadline.enter(deadline);
+                        CancellationToken previousToken = CancellationToken.enter(token);
+                        try {
+                            result.set(function.apply(source.result.get()));
+                        } catch (ExecutionException e) {
+                            result.setException(e.getCause());
+                        } catch (Throwable t) {
+                            result.setException(t);
+                        } finally {
+                            CancellationToken.restore(previousToken);
+                            Deadline.restore(previous);
+                        }
+                    }
+                }, executor);
+            }
+        }.setLane(lane);
+    }
+
+    /**
+     * Creates a task which continues with the task returned by continuation once this one has
+     * succeeded. The continuation is called and its task started on the thread which completed
+     * this task, so a chain of calls only holds one thread at a time and none while waiting for a
+     * call to start. The chained tasks share the deadline of the returned task.
+     *
+     * @param continuation Creates the next task from the value of this one
+     * @return A task resolving to the value of the next task
+     */
+    @NonNull
+    public <R> ApiTask<R> then(@NonNull final Continuation<? super V, R> continuation) {
+        final ApiTask<V> source = this;
+        return new ApiTask<R>() {
+            @Override
+            void run(@NonNull Executor executor,
+                     @Nullable final Deadline deadline,
+                     @NonNull final CancellationToken token,
+                     @NonNull final ApiFuture<R> result) {
+                source.start(executor, deadline, token);
+                source.result.addListener(new TaskRunnable(result) {
+                    @Override
+                    public void run() {
+                        if (result.isDone()) {
+                            return;
+                        }
+
+                        final ApiTask<R> next;
+                        Deadline previous = Deadline.enter(deadline);
+                        CancellationToken previousToken = CancellationToken.enter(token);
+                        try {
+                            next = continuation.then(source.result.get());
+                            next.start(DIRECT_EXECUTOR, deadline, token);
+                        } catch (ExecutionException e) {
+                            result.setException(e.getCause());
+                            return;
+                        } catch (Throwable t) {
+                            result.setException(t);
+                            return;
+                        } finally {
+                            CancellationToken.restore(previousToken);
+                            Deadline.restore(previous);
+                        }
+
+                        next.result.addListener(new Runnable() {
+                            @Override
+                            public void run() {
+                                result.setFrom(next.result);
+                            }
+                        }, DIRECT_EXECUTOR);
+                    }
+                }, executor);
+            }
+        }.setLane(lane);
+    }
+
+    /**
+     * Creates a task which runs all of the supplied tasks concurrently. No thread waits for the
+     * tasks to complete, the last one to do so completes the returned task.
+     *
+     * @param tasks The tasks to run
+     * @return A task resolving to the values of tasks in the same order, failing as soon as one of
+     * them fails in which case the others are cancelled. It is scheduled in the most urgent lane of
+     * tasks and runs them all in that lane.
+     */
+    @NonNull
+    public static <V> ApiTask<List<V>> allOf(@NonNull final List<? extends ApiTask<? extends V>> tasks) {
+        return new ApiTask<List<V>>() {
+            @Override
+            void run(@NonNull Executor executor,
+                     @Nullable Deadline deadline,
+                     @NonNull CancellationToken token,
+                     @NonNull final ApiFuture<List<V>> result) {
+                if (tasks.isEmpty()) {
+                    result.set(Collections.<V>emptyList());
+                    return;
+                }
+
+                final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(tasks.size());
+                final AtomicInteger remaining = new AtomicInteger(tasks.size());
+
+                for (int i = 0; i < tasks.size(); i++) {
+                    final int index = i;
+                    final ApiTask<? extends V> task = tasks.get(i);
+
+                    task.start(executor, deadline, token);
+                    task.result.addListener(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                values.set(index, task.result.get());
+                            } catch (ExecutionException e) {
+                                failFast(e.getCause());
+                                return;
+                            } catch (CancellationException | InterruptedException e) {
+                                failFast(e);
+                                return;
+                            }
+
+                            if (remaining.decrementAndGet() == 0) {
+                                List<V> list = new ArrayList<>(values.length());
+                                for (int j = 0; j < values.length(); j++) {
+                                    list.add(values.get(j));
+                                }
+
+                                result.set(list);
+                            }
+                        }
+
+                        private void failFast(@NonNull Throwable failure) {
+                            if (result.setException(failure)) {
+                                // the other values are no longer needed
+                                for (ApiTask<? extends V> other : tasks) {
+                                    other.cancel();
+                                }
+                            }
+                        }
+                    }, DIRECT_EXECUTOR);
+                }
+            }
+        }.setLane(mostUrgentLane(tasks));
+    }
+
+    /**
+     * @return The most urgent lane of tasks, INTERACTIVE if there are none
+     */
+    @NonNull
+    private static Lane mostUrgentLane(@NonNull List<? extends ApiTask<?>> tasks) {
+        Lane lane = null;
+        for (ApiTask<?> task : tasks) {
+            if (lane == null || task.lane.ordinal() < lane.ordinal()) {
+                lane = task.lane;
+            }
+        }
+
+        return lane != null ? lane : Lane.INTERACTIVE;
+    }
+
+    /**
+     * Creates a task which runs first and second concurrently and combines their values.
+     *
+     * @param combiner Combines the values of both tasks, runs on the thread completing the last one
+     * @return A task resolving to the combined value
+     * @see #allOf(List)
+     */
+    @NonNull
+    public static <A, B, R> ApiTask<R> zip(@NonNull ApiTask<A> first,
+                                           @NonNull ApiTask<B> second,
+                                           @NonNull final Function<Pair<A, B>, ? extends R> combiner) {
+        List<ApiTask<?>> tasks = new ArrayList<>(2);
+        tasks.add(first);
+        tasks.add(second);
+
+        return allOf(tasks).map(new Function<List<Object>, R>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public R apply(List<Object> values) throws Exception {
+                return combiner.apply(new Pair<>((A) values.get(0), (B) values.get(1)));
+            }
+        });
+    }
+
+    /**
+     * Starts the task unless it was already started
+     *
+     * @param executor    The executor to run on
+     * @param deadline    The deadline of the task starting this one, if any
+     * @param parentToken The cancellation token of the task starting this one, if any. Cancelling
+     *                    that task also cancels this one.
+     */
+    private void start(@NonNull Executor executor,
+                       @Nullable Deadline deadline,
+                       @Nullable final CancellationToken parentToken) {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+
+        if (parentToken != null) {
+            final Runnable cancelHook = new Runnable() {
+                @Override
+                public void run() {
+                    cancel();
+                }
+            };
+
+            parentToken.addHook(cancelHook);
+            result.addListener(new Runnable() {
+                @Override
+                public void run() {
+                    parentToken.removeHook(cancelHook);
+                }
+            }, DIRECT_EXECUTOR);
+        }
+
+        deadline = Deadline.earliest(inheritedDeadline, deadline);
+        if (timeout > 0 && callable == null) {
+            deadline = Deadline.earliest(deadline, Deadline.after(timeout, TimeUnit.MILLISECONDS));
+        }
+
+        try {
+            this.run(executor, deadline, cancellationToken, result);
+        } catch (RejectedExecutionException e) {
+            result.setException(e);
+        }
+    }
+
+    /**
+     * Cancels the token once the result is cancelled, which aborts the connections in use
+     */
+    private void cancelTokenWithResult() {
+        result.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (result.isCancelled()) {
+                    cancellationToken.cancel();
+                }
+            }
+        }, DIRECT_EXECUTOR);
+    }
+
+    /**
+     * Produces the result of the task, overridden by chained and combined tasks
+     */
+    void run(@NonNull Executor executor,
+             @Nullable final Deadline deadline,
+             @NonNull final CancellationToken token,
+             @NonNull final ApiFuture<V> result) {
+        executor.execute(new TaskRunnable(result) {
+            @Override
+            public void run() {
+                if (result.isDone()) {
+                    return;
+                }
+
+                Deadline runDeadline = Deadline.earliest(deadline, Deadline.current());
+                if (timeout > 0) {
+                    runDeadline = Deadline.earliest(runDeadline, Deadline.after(timeout, TimeUnit.MILLISECONDS));
+                }
+
+                Deadline previous = Deadline.enter(runDeadline);
+                CancellationToken previousToken = CancellationToken.enter(token);
+                try {
+                    //noinspection ConstantConditions
+                    result.set(callable.call());
+                } catch (Throwable t) {
+                    result.setException(t);
+                } finally {
+                    CancellationToken.restore(previousToken);
+                    Deadline.restore(previous);
+                }
+            }
+        });
+    }
+
+    /**
+     * Work handed to an executor on behalf of a task, which fails the task if the executor drops it
+     */
+    private static abstract class TaskRunnable implements TaskDispatcher.RejectableRunnable {
+        @NonNull
+        private final ApiFuture<?> result;
+
+        TaskRunnable(@NonNull ApiFuture<?> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void reject(@NonNull RejectedExecutionException e) {
+            result.setException(e);
+        }
+    }
+
+    /**
+     * Hands the work of a WrappedAsyncTask to a lane. When the lane drops it, ex: because its queue
+     * is full, the AsyncTask gets onError and onCancelled rather than executeAsyncTask throwing on
+     * the caller's thread.
+     */
+    private static class AsyncTaskExecutor implements Executor {
+        @NonNull
+        private final WrappedAsyncTask<?> asyncTask;
+
+        @NonNull
+        private final Executor executor;
+
+        AsyncTaskExecutor(@NonNull WrappedAsyncTask<?> asyncTask, @NonNull Executor executor) {
+            this.asyncTask = asyncTask;
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(@NonNull final Runnable command) {
+            TaskDispatcher.RejectableRunnable runnable = new TaskDispatcher.RejectableRunnable() {
+                @Override
+                public void run() {
+                    command.run();
+                }
+
+                @Override
+                public void reject(@NonNull RejectedExecutionException e) {
+                    asyncTask.fail(e, false);
+                }
+            };
+
+            try {
+                executor.execute(runnable);
+            } catch (RejectedExecutionException e) {
+                runnable.reject(e);
+            }
+        }
+    }
+
+    /**
+     * @return A FutureTask running this task on the thread calling its run method, for use with
+     * WrappedAsyncTask
+     */
+    @NonNull
+    private FutureTask<V> inlineFutureTask() {
+        return new FutureTask<>(new Callable<V>() {
+            @Override
+            public V call() throws Exception {
+                try {
+                    return executeImmediately();
+                } catch (ExecutionException e) {
+                    // rethrow what the task threw, as if it had been called directly
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
+                    }
+
+                    throw e;
+                }
+            }
+        });
     }
-}
\ No newline at end of file
+}
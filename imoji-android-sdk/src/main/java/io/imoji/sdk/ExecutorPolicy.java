@@ -0,0 +1,149 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the threads and queues used to run ApiTasks. Tasks are queued per lane, see ApiTask.Lane,
+ * and each lane holds at most maxQueuedTasks tasks waiting for a thread. The rejection policy
+ * decides what happens to a task executed while its lane's queue is full, ex: when calls pile up
+ * on a flaky network.
+ *
+ * Created by agent on 10/17/26.
+ */
+public class ExecutorPolicy {
+
+    /**
+     * What happens to a task executed while the queue of its lane is full
+     */
+    public enum RejectionPolicy {
+        /**
+         * The task fails with a RejectedExecutionException
+         */
+        ABORT,
+
+        /**
+         * The oldest task queued in the lane fails with a RejectedExecutionException and the new
+         * task takes its place. Keeps the most recent calls, such as the latest search.
+         */
+        DISCARD_OLDEST,
+
+        /**
+         * The task runs on the thread executing it, which slows down callers producing tasks
+         * faster than they complete. Tasks executed from the main thread fail with a
+         * RejectedExecutionException instead, as with ABORT.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * HTTP Executor settings borrowed from Bolts-Android's AndroidExecutors.newCachedThreadPool
+     * https://github.com/BoltsFramework/Bolts-Android/blob/master/bolts-tasks/src/main/java/bolts/AndroidExecutors.java
+     */
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int THREAD_POOL_MAX_SIZE = CPU_COUNT * 2 + 2;
+    private static final long THREAD_POOL_KEEP_ALIVE_TIME = 1L;
+
+    /**
+     * Up to twice the number of CPUs plus two threads, kept alive for a second when idle. Queues up
+     * to 64 tasks per lane and discards the oldest ones beyond that.
+     */
+    public static final ExecutorPolicy DEFAULT = new ExecutorPolicy(
+            THREAD_POOL_MAX_SIZE, 64, RejectionPolicy.DISCARD_OLDEST, THREAD_POOL_KEEP_ALIVE_TIME, TimeUnit.SECONDS
+    );
+
+    private final int maxThreads;
+
+    private final int maxQueuedTasks;
+
+    @NonNull
+    private final RejectionPolicy rejectionPolicy;
+
+    private final long keepAlive;
+
+    /**
+     * @param maxThreads      The maximum number of tasks running at once across all lanes
+     * @param maxQueuedTasks  The maximum number of tasks waiting for a thread in each lane
+     * @param rejectionPolicy What happens to tasks executed while their lane's queue is full
+     * @param keepAlive       How long idle threads are kept before they are stopped
+     * @param timeUnit        The unit of keepAlive
+     */
+    public ExecutorPolicy(int maxThreads, int maxQueuedTasks, @NonNull RejectionPolicy rejectionPolicy,
+                          long keepAlive, @NonNull TimeUnit timeUnit) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be greater than 0");
+        }
+
+        if (maxQueuedTasks < 0 || keepAlive < 0) {
+            throw new IllegalArgumentException("ExecutorPolicy values must not be negative");
+        }
+
+        this.maxThreads = maxThreads;
+        this.maxQueuedTasks = maxQueuedTasks;
+        this.rejectionPolicy = rejectionPolicy;
+        this.keepAlive = timeUnit.toMillis(keepAlive);
+    }
+
+    /**
+     * @return The maximum number of tasks running at once across all lanes
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * @return The maximum number of tasks waiting for a thread in each lane
+     */
+    public int getMaxQueuedTasks() {
+        return maxQueuedTasks;
+    }
+
+    /**
+     * @return What happens to tasks executed while their lane's queue is full
+     */
+    @NonNull
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * @return How long idle threads are kept in milliseconds
+     */
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorPolicy{" +
+                "maxThreads=" + maxThreads +
+                ", maxQueuedTasks=" + maxQueuedTasks +
+                ", rejectionPolicy=" + rejectionPolicy +
+                ", keepAlive=" + keepAlive +
+                '}';
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Opens and recycles the HTTP connections used to communicate with the Imoji API. By default the
+ * SDK uses the platform's HttpURLConnection implementation and keeps connections alive between
+ * calls. Developers can plug in a different HTTP engine (ex: OkHttp's OkUrlFactory) by supplying
+ * their own transport with ImojiSDK.setHttpTransport.
+ */
+public interface HttpTransport {
+
+    /**
+     * Opens a new, unconnected, connection to the supplied URL.
+     *
+     * @param url The URL to connect to
+     * @return An HttpURLConnection for the URL
+     * @throws IOException If the connection could not be created
+     */
+    @NonNull
+    HttpURLConnection openConnection(@NonNull URL url) throws IOException;
+
+    /**
+     * Called once the SDK is done with a connection returned from openConnection.
+     *
+     * @param connection The connection to release
+     * @param reusable   True if the response body was fully consumed and the underlying socket
+     *                   can be returned to the connection pool. False if the request failed
+     *                   midway and the connection must be torn down.
+     */
+    void releaseConnection(@NonNull HttpURLConnection connection, boolean reusable);
+}
@@ -0,0 +1,56 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+import android.support.annotation.NonNull;
+
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * Receives the results of a search or featured call as they are decoded from the network rather
+ * than once the whole response has been read. Methods are called on the main thread, or on the
+ * executor supplied with the call, in the order the imojis were decoded.
+ *
+ * Created by agent on 10/17/26.
+ */
+public interface ImojiResultListener {
+
+    /**
+     * Called as soon as an imoji has been decoded. If the call is retried after a failure the
+     * imojis are reported again starting from index 0.
+     *
+     * @param imoji The decoded imoji
+     * @param index The position of the imoji in the results
+     */
+    void onImoji(@NonNull Imoji imoji, int index);
+
+    /**
+     * Called once the response has been fully read, after the last call to onImoji.
+     *
+     * @param response The complete response, including the followup search term and related
+     *                 categories
+     */
+    void onComplete(@NonNull ImojisResponse response);
+}
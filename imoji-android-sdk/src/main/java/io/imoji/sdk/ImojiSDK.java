@@ -25,10 +25,16 @@ package io.imoji.sdk;
 
 import android.content.Context;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import io.imoji.sdk.internal.ApiSession;
+import io.imoji.sdk.internal.DefaultHttpTransport;
+import io.imoji.sdk.internal.LruResponseCache;
+import io.imoji.sdk.internal.TaskDispatcher;
 
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Base class to create an Session object and set client credentials.
@@ -41,6 +47,30 @@ public class ImojiSDK {
 
     private String apiToken;
 
+    @NonNull
+    private HttpTransport httpTransport = new DefaultHttpTransport();
+
+    @Nullable
+    private ResponseCache responseCache = new LruResponseCache(LruResponseCache.DEFAULT_MAX_SIZE);
+
+    private long tokenRefreshSkew = TimeUnit.MINUTES.toMillis(1);
+
+    @NonNull
+    private RetryPolicy retryPolicy = RetryPolicy.DEFAULT;
+
+    private int requestTimeout = (int) TimeUnit.SECONDS.toMillis(30);
+
+    private boolean lazyResultDecodingEnabled;
+
+    @NonNull
+    private ExecutorPolicy executorPolicy = ExecutorPolicy.DEFAULT;
+
+    @Nullable
+    private Executor executor;
+
+    @Nullable
+    private TaskDispatcher taskDispatcher;
+
     public ImojiSDK setCredentials(@NonNull UUID clientId, @NonNull String apiToken) {
         this.clientId = clientId;
         this.apiToken = apiToken;
@@ -48,12 +78,138 @@ public class ImojiSDK {
         return this;
     }
 
+    /**
+     * Sets the HttpTransport used by sessions created after this call. Use this to run the SDK's
+     * requests through an alternative HTTP engine.
+     *
+     * @param httpTransport The transport to use
+     */
+    public ImojiSDK setHttpTransport(@NonNull HttpTransport httpTransport) {
+        this.httpTransport = httpTransport;
+
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes used to cache responses of read only calls such as
+     * fetching categories. Cached responses are revalidated with the server on every call and
+     * only downloaded again if they changed. The cache is shared by all sessions created after this
+     * call.
+     *
+     * @param maxSize The maximum size of the cache in bytes, 0 disables response caching
+     */
+    public ImojiSDK setResponseCacheSize(int maxSize) {
+        this.responseCache = maxSize > 0 ? new LruResponseCache(maxSize) : null;
+
+        return this;
+    }
+
+    /**
+     * Sets how long before its expiration an OAuth token in use is renewed in the background. A
+     * larger skew makes it less likely for a call to wait on a new token.
+     *
+     * @param skew     Time before expiration to renew the token
+     * @param timeUnit The unit of skew
+     */
+    public ImojiSDK setTokenRefreshSkew(long skew, @NonNull TimeUnit timeUnit) {
+        this.tokenRefreshSkew = timeUnit.toMillis(skew);
+
+        return this;
+    }
+
+    /**
+     * Sets the RetryPolicy used by sessions created after this call, unless one is supplied when
+     * creating the session. Defaults to RetryPolicy.DEFAULT.
+     *
+     * @param retryPolicy The policy to use, RetryPolicy.NONE disables retries
+     */
+    public ImojiSDK setRetryPolicy(@NonNull RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+
+        return this;
+    }
+
+    /**
+     * Sets the connect and read timeout of each network request made by sessions created after this
+     * call. Use ApiTask.setTimeout to bound the total duration of an API call.
+     *
+     * @param timeout  The timeout, must be greater than 0
+     * @param timeUnit The unit of timeout
+     */
+    public ImojiSDK setRequestTimeout(long timeout, @NonNull TimeUnit timeUnit) {
+        long timeoutMillis = timeUnit.toMillis(timeout);
+        if (timeoutMillis <= 0 || timeoutMillis > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid request timeout " + timeout + " " + timeUnit);
+        }
+
+        this.requestTimeout = (int) timeoutMillis;
+
+        return this;
+    }
+
+    /**
+     * Sets whether ImojisResponses returned by sessions created after this call decode their imojis
+     * and related categories only when they are accessed. Useful when results are often superseded
+     * before all of them are displayed, such as searching while the user types. The lists of lazily
+     * decoded responses are read only. Disabled by default.
+     *
+     * @param enabled True to decode results on access
+     */
+    public ImojiSDK setLazyResultDecodingEnabled(boolean enabled) {
+        this.lazyResultDecodingEnabled = enabled;
+
+        return this;
+    }
+
+    /**
+     * Sets the limits of the threads and queues running ApiTasks executed after this call, ex: how
+     * many usage pings may be queued on a slow network. Tasks already queued keep running under the
+     * previous policy. Defaults to ExecutorPolicy.DEFAULT.
+     *
+     * @param executorPolicy The policy to apply
+     */
+    public ImojiSDK setExecutorPolicy(@NonNull ExecutorPolicy executorPolicy) {
+        synchronized (this) {
+            this.executorPolicy = executorPolicy;
+            this.taskDispatcher = null;
+        }
+
+        return this;
+    }
+
+    /**
+     * Runs ApiTasks executed after this call on an executor of the application, ex: to share its
+     * thread pool with the SDK. Tasks are still scheduled by lane and at most
+     * ExecutorPolicy.getMaxThreads of them are handed to the executor at once. The priorities of the
+     * executor's threads are left untouched.
+     *
+     * @param executor The executor to run tasks on, null to use a thread pool owned by the SDK
+     */
+    public ImojiSDK setExecutor(@Nullable Executor executor) {
+        synchronized (this) {
+            this.executor = executor;
+            this.taskDispatcher = null;
+        }
+
+        return this;
+    }
+
     /**
      * Creates a new session with the Android application context
      * @param context The supplied application context
      * @return A new Session object to be used for making API calls
      */
     public Session createSession(@NonNull Context context) {
+        return this.createSession(context, this.retryPolicy);
+    }
+
+    /**
+     * Creates a new session with the Android application context and a custom RetryPolicy
+     * @param context The supplied application context
+     * @param retryPolicy The RetryPolicy for calls made by the session
+     * @return A new Session object to be used for making API calls
+     */
+    public Session createSession(@NonNull Context context, @NonNull RetryPolicy retryPolicy) {
         if (this.apiToken == null) {
             throw new RuntimeException("apiToken has not been set");
         }
@@ -62,7 +218,7 @@ public class ImojiSDK {
             throw new RuntimeException("clientId has not been set");
         }
 
-        return this.createSessionWithStoragePolicy(StoragePolicy.createWithContext(context));
+        return this.createSessionWithStoragePolicy(StoragePolicy.createWithContext(context), retryPolicy);
     }
 
     /**
@@ -71,7 +227,18 @@ public class ImojiSDK {
      * @return A new Session object to be used for making API calls
      */
     public Session createSessionWithStoragePolicy(@NonNull StoragePolicy storagePolicy) {
-        return new ApiSession(storagePolicy);
+        return this.createSessionWithStoragePolicy(storagePolicy, this.retryPolicy);
+    }
+
+    /**
+     * Creates a new session with a custom StoragePolicy instance and RetryPolicy
+     * @param storagePolicy The requested StoragePolicy to use
+     * @param retryPolicy The RetryPolicy for calls made by the session
+     * @return A new Session object to be used for making API calls
+     */
+    public Session createSessionWithStoragePolicy(@NonNull StoragePolicy storagePolicy,
+                                                  @NonNull RetryPolicy retryPolicy) {
+        return new ApiSession(storagePolicy, retryPolicy);
     }
 
     /**
@@ -90,6 +257,88 @@ public class ImojiSDK {
         return apiToken;
     }
 
+    /**
+     * @return The HttpTransport used for new sessions
+     */
+    @NonNull
+    public HttpTransport getHttpTransport() {
+        return httpTransport;
+    }
+
+    /**
+     * @return The response cache shared by new sessions, null if caching was disabled
+     */
+    @Nullable
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * @return How long before its expiration an OAuth token is renewed, in milliseconds
+     */
+    public long getTokenRefreshSkew() {
+        return tokenRefreshSkew;
+    }
+
+    /**
+     * @return The RetryPolicy used by new sessions
+     */
+    @NonNull
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return The connect and read timeout of each network request in milliseconds
+     */
+    public int getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * @return Whether new sessions decode the contents of ImojisResponses on access
+     */
+    public boolean isLazyResultDecodingEnabled() {
+        return lazyResultDecodingEnabled;
+    }
+
+    /**
+     * @return The policy applied to the threads and queues running ApiTasks
+     */
+    @NonNull
+    public ExecutorPolicy getExecutorPolicy() {
+        return executorPolicy;
+    }
+
+    /**
+     * @return The executor supplied with setExecutor, null if the SDK uses its own thread pool
+     */
+    @Nullable
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return The number of queued, running, completed and rejected ApiTasks. The counts start
+     * over when setExecutorPolicy or setExecutor are called.
+     */
+    @NonNull
+    public TaskStatistics getTaskStatistics() {
+        return getTaskDispatcher();
+    }
+
+    /**
+     * @return The dispatcher scheduling ApiTasks
+     */
+    @NonNull
+    synchronized TaskDispatcher getTaskDispatcher() {
+        if (taskDispatcher == null) {
+            taskDispatcher = new TaskDispatcher(executorPolicy, executor);
+        }
+
+        return taskDispatcher;
+    }
+
     public static ImojiSDK getInstance() {
         return INSTANCE;
     }
@@ -0,0 +1,49 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+/**
+ * The in-memory cache of responses to read only calls such as fetching categories, shared by the
+ * sessions created by ImojiSDK. Cached responses are revalidated with the server on every call and
+ * only downloaded again if they changed. See ImojiSDK.setResponseCacheSize to resize it.
+ *
+ * Created by agent on 10/17/26.
+ */
+public interface ResponseCache {
+
+    /**
+     * Removes all stored responses
+     */
+    void evictAll();
+
+    /**
+     * @return The total number of body bytes currently stored
+     */
+    int size();
+
+    /**
+     * @return The maximum number of body bytes the cache will hold
+     */
+    int maxSize();
+}
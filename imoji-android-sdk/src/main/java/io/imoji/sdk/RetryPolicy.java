@@ -0,0 +1,167 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+import android.support.annotation.NonNull;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controls how the SDK recovers from network errors and server failures. Idempotent calls, such
+ * as searches and fetching imojis by id, are retried with an exponentially growing, randomized
+ * delay between attempts. Calls which modify data on the server are never retried.
+ *
+ * The policy also configures a circuit breaker for each API host. Once a host failed several
+ * calls in a row, further calls to it fail immediately for a period of time rather than blocking
+ * on a backend which is known to be unhealthy. After that period a single trial call is let through
+ * to determine whether the host has recovered.
+ *
+ * Created by agent on 10/17/26.
+ */
+public class RetryPolicy {
+
+    /**
+     * Retries idempotent calls twice, waiting up to half a second before the first retry. Opens the
+     * circuit for 30 seconds after five consecutive failures.
+     */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(2, 500, 4000, 5, 30000, TimeUnit.MILLISECONDS);
+
+    /**
+     * Never retries and never fails fast
+     */
+    public static final RetryPolicy NONE = new RetryPolicy(0, 0, 0, 0, 0, TimeUnit.MILLISECONDS);
+
+    private static final Random JITTER = new Random();
+
+    private final int maxRetries;
+
+    private final long initialBackoff;
+
+    private final long maxBackoff;
+
+    private final int failureThreshold;
+
+    private final long openDuration;
+
+    /**
+     * Creates a policy which uses the default circuit breaker settings
+     *
+     * @param maxRetries     The number of times an idempotent call is retried
+     * @param initialBackoff The maximum delay before the first retry, doubled for every retry after
+     * @param maxBackoff     The upper bound of the delay between two attempts
+     * @param timeUnit       The unit of initialBackoff and maxBackoff
+     */
+    public RetryPolicy(int maxRetries, long initialBackoff, long maxBackoff, @NonNull TimeUnit timeUnit) {
+        this(maxRetries, timeUnit.toMillis(initialBackoff), timeUnit.toMillis(maxBackoff),
+                DEFAULT.failureThreshold, DEFAULT.openDuration, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param maxRetries       The number of times an idempotent call is retried
+     * @param initialBackoff   The maximum delay before the first retry, doubled for every retry after
+     * @param maxBackoff       The upper bound of the delay between two attempts
+     * @param failureThreshold The number of consecutive failed calls after which calls to a host
+     *                         fail fast, 0 disables the circuit breaker
+     * @param openDuration     How long calls fail fast before a trial call is attempted
+     * @param timeUnit         The unit of initialBackoff, maxBackoff and openDuration
+     */
+    public RetryPolicy(int maxRetries, long initialBackoff, long maxBackoff,
+                       int failureThreshold, long openDuration, @NonNull TimeUnit timeUnit) {
+        if (maxRetries < 0 || initialBackoff < 0 || maxBackoff < 0 || failureThreshold < 0 || openDuration < 0) {
+            throw new IllegalArgumentException("RetryPolicy values must not be negative");
+        }
+
+        this.maxRetries = maxRetries;
+        this.initialBackoff = timeUnit.toMillis(initialBackoff);
+        this.maxBackoff = timeUnit.toMillis(maxBackoff);
+        this.failureThreshold = failureThreshold;
+        this.openDuration = timeUnit.toMillis(openDuration);
+    }
+
+    /**
+     * @return The number of times an idempotent call is retried
+     */
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * @return The maximum delay before the first retry in milliseconds
+     */
+    public long getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    /**
+     * @return The upper bound of the delay between two attempts in milliseconds
+     */
+    public long getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    /**
+     * @return The number of consecutive failed calls after which calls to a host fail fast, 0 if
+     * the circuit breaker is disabled
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @return How long calls fail fast in milliseconds
+     */
+    public long getOpenDuration() {
+        return openDuration;
+    }
+
+    /**
+     * Computes the delay before a retry. The delay grows exponentially with each retry and is
+     * randomized between half and all of that value so that clients which failed at the same time
+     * don't all retry at the same time.
+     *
+     * @param retry The zero based number of the retry
+     * @return The delay in milliseconds
+     */
+    public long getBackoff(int retry) {
+        long backoff = (long) Math.min(maxBackoff, initialBackoff * Math.pow(2, retry));
+        if (backoff <= 1) {
+            return backoff;
+        }
+
+        long half = backoff / 2;
+        return half + (long) (JITTER.nextDouble() * (backoff - half));
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", initialBackoff=" + initialBackoff +
+                ", maxBackoff=" + maxBackoff +
+                ", failureThreshold=" + failureThreshold +
+                ", openDuration=" + openDuration +
+                '}';
+    }
+}
@@ -29,6 +29,7 @@ import android.support.annotation.Nullable;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import io.imoji.sdk.objects.Category;
 import io.imoji.sdk.objects.CategoryFetchOptions;
@@ -86,6 +87,36 @@ public interface Session {
     @NonNull
     ApiTask<ImojisResponse> searchImojis(@NonNull String term, @Nullable Integer offset, @Nullable Integer numberOfResults);
 
+    /**
+     * Searches the imojis database with a given search term and reports each imoji to the listener
+     * on the main thread as soon as it has been received.
+     *
+     * @param term            Search term to find imojis with.
+     * @param offset          The result offset from a previous search.
+     * @param numberOfResults Number of results to fetch.
+     * @param listener        Receives the imojis as they are decoded followed by the full response
+     * @return An ApiTask reference to be resolved by the caller
+     */
+    @NonNull
+    ApiTask<ImojisResponse> searchImojis(@NonNull String term, @Nullable Integer offset, @Nullable Integer numberOfResults,
+                                         @NonNull ImojiResultListener listener);
+
+    /**
+     * Searches the imojis database with a given search term and reports each imoji to the listener
+     * on listenerExecutor as soon as it has been received.
+     *
+     * @param term             Search term to find imojis with.
+     * @param offset           The result offset from a previous search.
+     * @param numberOfResults  Number of results to fetch.
+     * @param listener         Receives the imojis as they are decoded followed by the full response
+     * @param listenerExecutor Notifies the listener, must run commands in the order they were
+     *                         submitted, ex: a single threaded executor
+     * @return An ApiTask reference to be resolved by the caller
+     */
+    @NonNull
+    ApiTask<ImojisResponse> searchImojis(@NonNull String term, @Nullable Integer offset, @Nullable Integer numberOfResults,
+                                         @NonNull ImojiResultListener listener, @NonNull Executor listenerExecutor);
+
     /**
      * Gets a random set of featured imojis.
      *
@@ -103,6 +134,31 @@ public interface Session {
     @NonNull
     ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults);
 
+    /**
+     * Gets a random set of featured imojis and reports each imoji to the listener on the main thread
+     * as soon as it has been received.
+     *
+     * @param numberOfResults Number of results to fetch.
+     * @param listener        Receives the imojis as they are decoded followed by the full response
+     * @return An ApiTask reference to be resolved by the caller
+     */
+    @NonNull
+    ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults, @NonNull ImojiResultListener listener);
+
+    /**
+     * Gets a random set of featured imojis and reports each imoji to the listener on
+     * listenerExecutor as soon as it has been received.
+     *
+     * @param numberOfResults  Number of results to fetch.
+     * @param listener         Receives the imojis as they are decoded followed by the full response
+     * @param listenerExecutor Notifies the listener, must run commands in the order they were
+     *                         submitted, ex: a single threaded executor
+     * @return An ApiTask reference to be resolved by the caller
+     */
+    @NonNull
+    ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults, @NonNull ImojiResultListener listener,
+                                              @NonNull Executor listenerExecutor);
+
     /**
      * Gets imojis associated to a user's collection which can be accumulated by calling either
      * createImojiWithRawImage (Created),  addImojiToUserCollection (Saved),
@@ -249,4 +305,11 @@ public interface Session {
                                                         @Nullable Double longitude,
                                                         @Nullable Date dateOfBirth);
 
+    /**
+     * @return Running totals of the response bytes received by this session, before and after
+     * decompression
+     */
+    @NonNull
+    TransferStatistics getTransferStatistics();
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+import android.support.annotation.NonNull;
+
+/**
+ * The number of ApiTasks queued, running and done since the task executor was last configured,
+ * see ImojiSDK.getTaskStatistics. Useful to monitor the load the SDK puts on the device, ex: usage
+ * pings piling up on a slow network.
+ *
+ * Created by agent on 10/17/26.
+ */
+public interface TaskStatistics {
+
+    /**
+     * @return The number of tasks waiting for a thread in lane
+     */
+    int getQueuedCount(@NonNull ApiTask.Lane lane);
+
+    /**
+     * @return The number of tasks of lane running
+     */
+    int getRunningCount(@NonNull ApiTask.Lane lane);
+
+    /**
+     * @return The number of tasks running across all lanes
+     */
+    int getRunningCount();
+
+    /**
+     * @return The number of tasks which ran to completion
+     */
+    long getCompletedCount();
+
+    /**
+     * @return The number of tasks dropped because their lane's queue was full or the executor
+     * refused them
+     */
+    long getRejectedCount();
+}
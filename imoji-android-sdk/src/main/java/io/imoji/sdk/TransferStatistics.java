@@ -0,0 +1,49 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk;
+
+/**
+ * Running totals of the response bytes read by a session, see Session.getTransferStatistics.
+ * Compressed responses are tracked both as they arrived over the network and after being
+ * decompressed, making it easy to measure how much bandwidth response compression is saving.
+ *
+ * Created by agent on 10/17/26.
+ */
+public interface TransferStatistics {
+
+    /**
+     * @return The number of bytes received over the network for gzip or deflate encoded responses
+     */
+    long getCompressedBytes();
+
+    /**
+     * @return The size of the gzip or deflate encoded responses after decompression
+     */
+    long getDecompressedBytes();
+
+    /**
+     * @return The number of bytes received for responses that were not compressed by the server
+     */
+    long getUncompressedBytes();
+}
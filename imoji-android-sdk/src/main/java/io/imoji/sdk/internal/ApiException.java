@@ -34,16 +34,35 @@ public class ApiException extends Exception {
 
     private final ErrorResponse errorResponse;
 
+    private final int statusCode;
+
     public ApiException(ErrorResponse errorResponse) {
-        this.errorResponse = errorResponse;
+        this(errorResponse, 0);
     }
 
     public ApiException(String detailMessage, ErrorResponse errorResponse) {
+        this(detailMessage, errorResponse, 0);
+    }
+
+    public ApiException(ErrorResponse errorResponse, int statusCode) {
+        this.errorResponse = errorResponse;
+        this.statusCode = statusCode;
+    }
+
+    public ApiException(String detailMessage, ErrorResponse errorResponse, int statusCode) {
         super(detailMessage);
         this.errorResponse = errorResponse;
+        this.statusCode = statusCode;
     }
 
     public ErrorResponse getErrorResponse() {
         return errorResponse;
     }
+
+    /**
+     * @return The HTTP status code of the failed response, 0 if unknown
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
 }
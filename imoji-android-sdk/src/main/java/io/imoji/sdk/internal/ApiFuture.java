@@ -0,0 +1,212 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The result of an ApiTask. Unlike a FutureTask it is completed by whichever stage produces the
+ * value, which lets chained and combined tasks complete without a thread waiting on them, and it
+ * notifies listeners once it is done.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class ApiFuture<V> implements Future<V> {
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+    private static final int CANCELLED = 3;
+
+    private int state = PENDING;
+
+    @Nullable
+    private V value;
+
+    @Nullable
+    private Throwable failure;
+
+    @Nullable
+    private List<Runnable> listeners = new ArrayList<>(2);
+
+    /**
+     * Completes the future with value unless it is already done
+     *
+     * @return True if this call completed the future
+     */
+    public boolean set(@Nullable V value) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+
+            this.value = value;
+            this.state = SUCCEEDED;
+        }
+
+        complete();
+        return true;
+    }
+
+    /**
+     * Fails the future with failure unless it is already done
+     *
+     * @return True if this call completed the future
+     */
+    public boolean setException(@NonNull Throwable failure) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+
+            this.failure = failure;
+            this.state = FAILED;
+        }
+
+        complete();
+        return true;
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        synchronized (this) {
+            if (state != PENDING) {
+                return false;
+            }
+
+            this.state = CANCELLED;
+        }
+
+        complete();
+        return true;
+    }
+
+    /**
+     * Runs listener once the future is done. The listener runs on the thread completing the future,
+     * or on executor if the future is already done.
+     */
+    public void addListener(@NonNull Runnable listener, @NonNull Executor executor) {
+        synchronized (this) {
+            if (listeners != null) {
+                listeners.add(listener);
+                return;
+            }
+        }
+
+        executor.execute(listener);
+    }
+
+    /**
+     * Copies the outcome of source, which must be done, into this future
+     */
+    public void setFrom(@NonNull ApiFuture<? extends V> source) {
+        try {
+            set(source.get());
+        } catch (CancellationException e) {
+            cancel(false);
+        } catch (ExecutionException e) {
+            setException(e.getCause());
+        } catch (InterruptedException e) {
+            // source is done, get does not wait
+            setException(e);
+        }
+    }
+
+    @Override
+    public synchronized boolean isCancelled() {
+        return state == CANCELLED;
+    }
+
+    @Override
+    public synchronized boolean isDone() {
+        return state != PENDING;
+    }
+
+    @Override
+    public synchronized V get() throws InterruptedException, ExecutionException {
+        while (state == PENDING) {
+            wait();
+        }
+
+        return getDone();
+    }
+
+    @Override
+    public synchronized V get(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        long remaining = unit.toNanos(timeout);
+        long waitUntil = System.nanoTime() + remaining;
+        while (state == PENDING) {
+            if (remaining <= 0) {
+                throw new TimeoutException();
+            }
+
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = waitUntil - System.nanoTime();
+        }
+
+        return getDone();
+    }
+
+    private V getDone() throws ExecutionException {
+        switch (state) {
+            case SUCCEEDED:
+                return value;
+            case FAILED:
+                throw new ExecutionException(failure);
+            default:
+                throw new CancellationException();
+        }
+    }
+
+    private void complete() {
+        List<Runnable> completedListeners;
+        synchronized (this) {
+            completedListeners = listeners;
+            listeners = null;
+            notifyAll();
+        }
+
+        if (completedListeners != null) {
+            for (Runnable listener : completedListeners) {
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    // keep notifying the remaining listeners
+                    Platform.get().logError(ApiFuture.class.getName(), "Listener failed", e);
+                }
+            }
+        }
+    }
+}
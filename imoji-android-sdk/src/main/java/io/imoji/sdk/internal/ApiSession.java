@@ -27,10 +27,7 @@ import android.graphics.Bitmap;
 import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.text.TextUtils;
-import android.util.Log;
 
-import java.io.ByteArrayOutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
@@ -39,8 +36,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import io.imoji.sdk.ApiTask;
+import io.imoji.sdk.ImojiResultListener;
+import io.imoji.sdk.ImojiSDK;
+import io.imoji.sdk.RetryPolicy;
 import io.imoji.sdk.StoragePolicy;
 import io.imoji.sdk.objects.Category;
 import io.imoji.sdk.objects.CategoryFetchOptions;
@@ -59,6 +60,10 @@ public class ApiSession extends NetworkSession {
         super(storagePolicy);
     }
 
+    public ApiSession(@NonNull StoragePolicy storagePolicy, @NonNull RetryPolicy retryPolicy) {
+        super(storagePolicy, ImojiSDK.getInstance().getHttpTransport(), retryPolicy);
+    }
+
     @NonNull
     @Override
     public ApiTask<CategoriesResponse> getImojiCategories(@NonNull Category.Classification classification) {
@@ -105,18 +110,26 @@ public class ApiSession extends NetworkSession {
     public ApiTask<ImojisResponse> searchImojis(@NonNull String term,
                                                 @Nullable Integer offset,
                                                 @Nullable Integer numberOfResults) {
-        final HashMap<String, String> params = new HashMap<>(3);
-
-        params.put("query", term);
-        if (offset != null) {
-            params.put("offset", offset.toString());
-        }
+        return validatedGet(ImojiSDKConstants.Paths.SEARCH, ImojisResponse.class, searchParams(term, offset, numberOfResults), null);
+    }
 
-        if (numberOfResults != null) {
-            params.put("numResults", numberOfResults.toString());
-        }
+    @NonNull
+    @Override
+    public ApiTask<ImojisResponse> searchImojis(@NonNull String term,
+                                                @Nullable Integer offset,
+                                                @Nullable Integer numberOfResults,
+                                                @NonNull ImojiResultListener listener) {
+        return this.searchImojis(term, offset, numberOfResults, listener, MainThreadExecutor.getInstance());
+    }
 
-        return validatedGet(ImojiSDKConstants.Paths.SEARCH, ImojisResponse.class, params, null);
+    @NonNull
+    @Override
+    public ApiTask<ImojisResponse> searchImojis(@NonNull String term,
+                                                @Nullable Integer offset,
+                                                @Nullable Integer numberOfResults,
+                                                @NonNull ImojiResultListener listener,
+                                                @NonNull Executor listenerExecutor) {
+        return validatedStreamingGet(ImojiSDKConstants.Paths.SEARCH, searchParams(term, offset, numberOfResults), listener, listenerExecutor);
     }
 
     @NonNull
@@ -128,13 +141,22 @@ public class ApiSession extends NetworkSession {
     @NonNull
     @Override
     public ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults) {
-        final HashMap<String, String> params = new HashMap<>(1);
+        return validatedGet(ImojiSDKConstants.Paths.FEATURED, ImojisResponse.class, featuredParams(numberOfResults), null);
+    }
 
-        if (numberOfResults != null) {
-            params.put("numResults", numberOfResults.toString());
-        }
+    @NonNull
+    @Override
+    public ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults,
+                                                     @NonNull ImojiResultListener listener) {
+        return this.getFeaturedImojis(numberOfResults, listener, MainThreadExecutor.getInstance());
+    }
 
-        return validatedGet(ImojiSDKConstants.Paths.FEATURED, ImojisResponse.class, params, null);
+    @NonNull
+    @Override
+    public ApiTask<ImojisResponse> getFeaturedImojis(@Nullable Integer numberOfResults,
+                                                     @NonNull ImojiResultListener listener,
+                                                     @NonNull Executor listenerExecutor) {
+        return validatedStreamingGet(ImojiSDKConstants.Paths.FEATURED, featuredParams(numberOfResults), listener, listenerExecutor);
     }
 
     @NonNull
@@ -164,7 +186,7 @@ public class ApiSession extends NetworkSession {
     @NonNull
     @Override
     public ApiTask<ImojisResponse> fetchImojisByIdentifiers(@NonNull List<String> identifiers) {
-        final String ids = TextUtils.join(",", identifiers);
+        final String ids = Strings.join(",", identifiers);
         return validatedPost(ImojiSDKConstants.Paths.FETCH_IMOJIS_BY_ID, ImojisResponse.class, Collections.singletonMap("ids", ids), null);
     }
 
@@ -193,46 +215,53 @@ public class ApiSession extends NetworkSession {
     public ApiTask<CreateImojiResponse> createImojiWithRawImage(@NonNull final Bitmap rawImage,
                                                                 @NonNull Bitmap borderedImage,
                                                                 @Nullable final List<String> tags) {
-        return new ApiTask<>(new Callable<CreateImojiResponse>() {
-            @Override
-            public CreateImojiResponse call() throws Exception {
-                Map<String, String> params = new HashMap<>(1);
-
-                if (tags != null) {
-                    params.put("tags", TextUtils.join(",", tags));
-                }
-
-                ImojiUploadResponse imojiUploadResponse =
-                        validatedPost(
-                                ImojiSDKConstants.Paths.CREATE_IMOJI,
-                                ImojiUploadResponse.class,
-                                params,
-                                null
-                        ).executeImmediately();
+        Map<String, String> params = new HashMap<>(1);
 
-                Uri uploadUri = imojiUploadResponse.getUploadUri();
+        if (tags != null) {
+            params.put("tags", Strings.join(",", tags));
+        }
 
-                byte[] resizedImage = BitmapUtils.getPngDataWithMaxBoundaries(
+        // each step starts from the thread which completed the previous one
+        return validatedPost(
+                ImojiSDKConstants.Paths.CREATE_IMOJI,
+                ImojiUploadResponse.class,
+                params,
+                null
+        ).then(new ApiTask.Continuation<ImojiUploadResponse, CreateImojiResponse>() {
+            @NonNull
+            @Override
+            public ApiTask<CreateImojiResponse> then(ImojiUploadResponse imojiUploadResponse) throws Exception {
+                final String imojiId = imojiUploadResponse.getImojiId();
+                PoolingByteArrayOutputStream resizedImage = BitmapUtils.getPngDataWithMaxBoundaries(
                         rawImage, imojiUploadResponse.getMaxWidth(), imojiUploadResponse.getMaxHeight()
                 );
 
-                makePutDataRequest(
-                        uploadUri,
-                        resizedImage,
-                        Collections.singletonMap("Content-Type", "image/png")
-                ).executeImmediately();
-
-                String imojiId = imojiUploadResponse.getImojiId();
-                ImojisResponse imojisResponse =
-                        fetchImojisByIdentifiers(Collections.singletonList(imojiId)).executeImmediately();
-
-                if (imojisResponse.getImojis().isEmpty()) {
-                    throw new IllegalStateException("Could not fetch Imoji with identifier " + imojiId + " after creation");
+                // upload on this thread so the pooled buffer is only released once nothing writes
+                // from it anymore, even when the call is cancelled midway
+                try {
+                    // the upload URL requires a Content-Length, send the pooled buffer in fixed length mode
+                    makePutDataRequest(
+                            imojiUploadResponse.getUploadUri(),
+                            UploadBody.create(resizedImage.getBuffer(), 0, resizedImage.size()),
+                            Collections.singletonMap("Content-Type", "image/png")
+                    ).executeImmediately();
+                } finally {
+                    resizedImage.close();
                 }
 
-                return new CreateImojiResponse(imojisResponse.getImojis().iterator().next());
+                return fetchImojisByIdentifiers(Collections.singletonList(imojiId))
+                        .map(new ApiTask.Function<ImojisResponse, CreateImojiResponse>() {
+                            @Override
+                            public CreateImojiResponse apply(ImojisResponse imojisResponse) {
+                                if (imojisResponse.getImojis().isEmpty()) {
+                                    throw new IllegalStateException("Could not fetch Imoji with identifier " + imojiId + " after creation");
+                                }
+
+                                return new CreateImojiResponse(imojisResponse.getImojis().iterator().next());
+                            }
+                        });
             }
-        });
+        }).setLane(ApiTask.Lane.UPLOAD);
     }
 
     @NonNull
@@ -277,7 +306,8 @@ public class ApiSession extends NetworkSession {
             params.put("originIdentifier", originIdentifier);
         }
 
-        return validatedGet(ImojiSDKConstants.Paths.IMOJI_USAGE, GenericApiResponse.class, params, null);
+        return validatedGet(ImojiSDKConstants.Paths.IMOJI_USAGE, GenericApiResponse.class, params, null)
+                .setLane(ApiTask.Lane.ANALYTICS);
     }
 
     @NonNull
@@ -293,7 +323,7 @@ public class ApiSession extends NetworkSession {
     @Override
     public ApiTask<ImojiAttributionsResponse> fetchAttributionByImojiIdentifiers(@NonNull List<String> identifiers) {
         final HashMap<String, String> params = new HashMap<>(2);
-        final String ids = TextUtils.join(",", identifiers);
+        final String ids = Strings.join(",", identifiers);
 
         params.put("imojiIds", ids);
 
@@ -312,7 +342,7 @@ public class ApiSession extends NetworkSession {
             if ("male".equals(gender) || "female".equals(gender)) {
                 params.put("gender", gender);
             } else {
-                Log.w(ApiSession.class.getCanonicalName(), "Unknown value '" + gender + "' sent for gender. Possible values are 'male' or 'female'");
+                Platform.get().logWarning(ApiSession.class.getCanonicalName(), "Unknown value '" + gender + "' sent for gender. Possible values are 'male' or 'female'", null);
             }
         }
 
@@ -326,10 +356,11 @@ public class ApiSession extends NetworkSession {
         }
 
         if (params.isEmpty()) {
-            return emptyGenericApiTask();
+            return emptyGenericApiTask().setLane(ApiTask.Lane.ANALYTICS);
         }
 
-        return validatedPost(ImojiSDKConstants.Paths.SET_USER_DEMOGRAPHICS, GenericApiResponse.class, params, null);
+        return validatedPost(ImojiSDKConstants.Paths.SET_USER_DEMOGRAPHICS, GenericApiResponse.class, params, null)
+                .setLane(ApiTask.Lane.ANALYTICS);
     }
 
     private static class BitmapUtils {
@@ -359,24 +390,63 @@ public class ApiSession extends NetworkSession {
             return size;
         }
 
-        static byte[] getPngDataWithMaxBoundaries(Bitmap bitmap, int maxWidth, int maxHeight) {
+        /**
+         * Compresses the bitmap to a PNG into a pooled buffer. Callers must close the returned
+         * stream once they are done with its contents.
+         */
+        static PoolingByteArrayOutputStream getPngDataWithMaxBoundaries(Bitmap bitmap, int maxWidth, int maxHeight) {
+            Bitmap scaledBitmap = bitmap;
             if (bitmap.getWidth() > maxWidth && bitmap.getHeight() > maxHeight) {
                 int[] size = getSizeWithinBounds(bitmap.getWidth(), bitmap.getHeight(), maxWidth, maxHeight, false);
 
                 //resize image
-                bitmap = Bitmap.createScaledBitmap(bitmap, size[0], size[1], false);
+                scaledBitmap = Bitmap.createScaledBitmap(bitmap, size[0], size[1], false);
             }
 
             //estimate the size
-            int initialArraySize = bitmap.getWidth() * bitmap.getHeight() / 10;
+            int initialArraySize = scaledBitmap.getWidth() * scaledBitmap.getHeight() / 10;
 
-            ByteArrayOutputStream out = new ByteArrayOutputStream(initialArraySize);
+            PoolingByteArrayOutputStream out = new PoolingByteArrayOutputStream(BYTE_ARRAY_POOL, initialArraySize);
 
             //compress the bitmap to png
-            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+            scaledBitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+
+            // release the pixels of our scaled copy right away rather than waiting for a GC
+            if (scaledBitmap != bitmap) {
+                scaledBitmap.recycle();
+            }
+
+            return out;
+        }
+    }
+
+    @NonNull
+    private static Map<String, String> searchParams(@NonNull String term,
+                                                    @Nullable Integer offset,
+                                                    @Nullable Integer numberOfResults) {
+        final HashMap<String, String> params = new HashMap<>(3);
 
-            return out.toByteArray();
+        params.put("query", term);
+        if (offset != null) {
+            params.put("offset", offset.toString());
         }
+
+        if (numberOfResults != null) {
+            params.put("numResults", numberOfResults.toString());
+        }
+
+        return params;
+    }
+
+    @NonNull
+    private static Map<String, String> featuredParams(@Nullable Integer numberOfResults) {
+        final HashMap<String, String> params = new HashMap<>(1);
+
+        if (numberOfResults != null) {
+            params.put("numResults", numberOfResults.toString());
+        }
+
+        return params;
     }
 
     private static ApiTask<GenericApiResponse> emptyGenericApiTask(){
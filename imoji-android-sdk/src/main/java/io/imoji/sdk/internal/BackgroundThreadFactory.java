@@ -0,0 +1,65 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates daemon threads running at background priority for the SDK's housekeeping work, such as
+ * renewing OAuth tokens, so that they never compete with the application's UI.
+ *
+ * Created by agent on 10/17/26.
+ */
+class BackgroundThreadFactory implements ThreadFactory {
+
+    @NonNull
+    private final String name;
+
+    @NonNull
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    /**
+     * @param name Prefix of the names of the created threads
+     */
+    BackgroundThreadFactory(@NonNull String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(@NonNull final Runnable runnable) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Platform.get().setBackgroundThreadPriority();
+                runnable.run();
+            }
+        }, name + "-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+
+        return thread;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2012 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Modified for the Imoji Android SDK: adds DEFAULT_BUFFER_SIZE.
+ */
+
+package io.imoji.sdk.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * A bounded pool of byte buffers used for transient network reads and writes. Buffers are handed
+ * out for the duration of a single request and returned once the request completes so that back
+ * to back calls don't continuously allocate and discard large arrays. When the pool grows beyond
+ * its size limit, the least recently used buffers are dropped and left for the garbage collector.
+ *
+ * Adapted from com.android.volley.toolbox.ByteArrayPool.
+ */
+public class ByteArrayPool {
+
+    /**
+     * Default buffer size used when streaming network bodies
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    private static final Comparator<byte[]> BUFFER_COMPARATOR = new Comparator<byte[]>() {
+        @Override
+        public int compare(byte[] lhs, byte[] rhs) {
+            return lhs.length - rhs.length;
+        }
+    };
+
+    private final List<byte[]> buffersByLastUse = new LinkedList<>();
+
+    private final List<byte[]> buffersBySize = new ArrayList<>(64);
+
+    private final int sizeLimit;
+
+    private int currentSize = 0;
+
+    public ByteArrayPool(int sizeLimit) {
+        this.sizeLimit = sizeLimit;
+    }
+
+    /**
+     * Returns a buffer from the pool if one is available of the requested size, or allocates a
+     * new one if a pooled one is not available.
+     *
+     * @param length The minimum size of the buffer
+     * @return A byte buffer of at least the requested length. It may be larger than requested.
+     */
+    public synchronized byte[] getBuf(int length) {
+        for (int i = 0; i < buffersBySize.size(); i++) {
+            byte[] buf = buffersBySize.get(i);
+            if (buf.length >= length) {
+                currentSize -= buf.length;
+                buffersBySize.remove(i);
+                buffersByLastUse.remove(buf);
+                return buf;
+            }
+        }
+
+        return new byte[length];
+    }
+
+    /**
+     * Returns a buffer to the pool, throwing away old buffers if the pool would exceed its
+     * allotted size.
+     *
+     * @param buf The buffer to return to the pool
+     */
+    public synchronized void returnBuf(byte[] buf) {
+        if (buf == null || buf.length > sizeLimit) {
+            return;
+        }
+
+        buffersByLastUse.add(buf);
+        int position = Collections.binarySearch(buffersBySize, buf, BUFFER_COMPARATOR);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        buffersBySize.add(position, buf);
+        currentSize += buf.length;
+        trim();
+    }
+
+    private synchronized void trim() {
+        while (currentSize > sizeLimit) {
+            byte[] buf = buffersByLastUse.remove(0);
+            buffersBySize.remove(buf);
+            currentSize -= buf.length;
+        }
+    }
+}
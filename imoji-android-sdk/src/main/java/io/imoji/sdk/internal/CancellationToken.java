@@ -0,0 +1,171 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tells the code run by an ApiTask that the task was cancelled. Like the Deadline, the token of the
+ * running task is tracked per thread. Network requests register hooks on it to abort their
+ * connection as soon as the task is cancelled, rather than once a blocking read returns.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class CancellationToken {
+
+    private static final ThreadLocal<CancellationToken> CURRENT_TOKEN = new ThreadLocal<>();
+
+    /**
+     * Hooks to run on cancellation, null once cancelled
+     */
+    @Nullable
+    private List<Runnable> hooks = new ArrayList<>(2);
+
+    /**
+     * Cancels the token and runs its hooks, does nothing if it was already cancelled
+     */
+    public void cancel() {
+        List<Runnable> cancelHooks;
+        synchronized (this) {
+            cancelHooks = hooks;
+            hooks = null;
+        }
+
+        if (cancelHooks != null) {
+            for (Runnable hook : cancelHooks) {
+                hook.run();
+            }
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return hooks == null;
+    }
+
+    /**
+     * Runs hook once the token is cancelled, immediately if it already is
+     */
+    public void addHook(@NonNull Runnable hook) {
+        synchronized (this) {
+            if (hooks != null) {
+                hooks.add(hook);
+                return;
+            }
+        }
+
+        hook.run();
+    }
+
+    public synchronized void removeHook(@NonNull Runnable hook) {
+        if (hooks != null) {
+            hooks.remove(hook);
+        }
+    }
+
+    /**
+     * @return The token of the task running on the current thread, null if it has none
+     */
+    @Nullable
+    public static CancellationToken current() {
+        return CURRENT_TOKEN.get();
+    }
+
+    /**
+     * Makes token the current one for this thread
+     *
+     * @return The previous token, to be passed back to restore once the task completed
+     */
+    @Nullable
+    public static CancellationToken enter(@Nullable CancellationToken token) {
+        CancellationToken previous = CURRENT_TOKEN.get();
+        CURRENT_TOKEN.set(token);
+
+        return previous;
+    }
+
+    /**
+     * Restores the token that was current before enter was called
+     */
+    public static void restore(@Nullable CancellationToken previous) {
+        if (previous == null) {
+            CURRENT_TOKEN.remove();
+        } else {
+            CURRENT_TOKEN.set(previous);
+        }
+    }
+
+    /**
+     * @return True if the current thread has a token and it was cancelled
+     */
+    static boolean isCurrentCancelled() {
+        CancellationToken token = CURRENT_TOKEN.get();
+        return token != null && token.isCancelled();
+    }
+
+    /**
+     * @throws ApiCancelledException If the current token was cancelled
+     */
+    static void checkCurrent() throws ApiCancelledException {
+        if (isCurrentCancelled()) {
+            throw new ApiCancelledException("Call cancelled");
+        }
+    }
+
+    /**
+     * Interrupts the current thread if the current token is cancelled while it blocks, ex: waiting
+     * on a call shared with other tasks. Callers must pass the returned hook to endInterruptible
+     * once they stopped blocking.
+     *
+     * @return The registered hook, null if the current thread has no token
+     */
+    @Nullable
+    static Runnable beginInterruptible() {
+        CancellationToken token = CURRENT_TOKEN.get();
+        if (token == null) {
+            return null;
+        }
+
+        final Thread thread = Thread.currentThread();
+        Runnable hook = new Runnable() {
+            @Override
+            public void run() {
+                thread.interrupt();
+            }
+        };
+        token.addHook(hook);
+
+        return hook;
+    }
+
+    static void endInterruptible(@Nullable Runnable hook) {
+        CancellationToken token = CURRENT_TOKEN.get();
+        if (hook != null && token != null) {
+            token.removeHook(hook);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+
+import io.imoji.sdk.RetryPolicy;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the health of a single API host. After the number of consecutive failures configured by
+ * the RetryPolicy the circuit opens and calls are refused until the open duration elapsed. The
+ * circuit is then half open: a single trial call is let through, closing the circuit if it succeeds
+ * and opening it again if it fails.
+ *
+ * Breakers are shared by all sessions talking to the same host.
+ *
+ * Created by agent on 10/17/26.
+ */
+class CircuitBreaker {
+
+    private static final ConcurrentMap<String, CircuitBreaker> HOST_BREAKERS = new ConcurrentHashMap<>();
+
+    @NonNull
+    private final String host;
+
+    @NonNull
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    @NonNull
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    /**
+     * Elapsed realtime at which the open circuit allows a trial call, 0 while closed
+     */
+    private volatile long openUntil;
+
+    private CircuitBreaker(@NonNull String host) {
+        this.host = host;
+    }
+
+    @NonNull
+    static CircuitBreaker forHost(@NonNull String host) {
+        CircuitBreaker breaker = HOST_BREAKERS.get(host);
+        if (breaker == null) {
+            CircuitBreaker newBreaker = new CircuitBreaker(host);
+            breaker = HOST_BREAKERS.putIfAbsent(host, newBreaker);
+            if (breaker == null) {
+                breaker = newBreaker;
+            }
+        }
+
+        return breaker;
+    }
+
+    /**
+     * @return True if a call may be made to the host
+     */
+    boolean allowRequest(@NonNull RetryPolicy policy) {
+        long openUntil = this.openUntil;
+        if (openUntil == 0 || policy.getFailureThreshold() == 0) {
+            return true;
+        }
+
+        if (Platform.get().elapsedRealtime() < openUntil) {
+            return false;
+        }
+
+        // half open, let a single trial call through
+        return trialInFlight.compareAndSet(false, true);
+    }
+
+    /**
+     * Records a call which reached the host, closing the circuit
+     */
+    void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+
+        if (openUntil != 0) {
+            openUntil = 0;
+            trialInFlight.set(false);
+        }
+    }
+
+    /**
+     * Records a call which failed because of a network error or a server failure
+     */
+    void recordFailure(@NonNull RetryPolicy policy) {
+        if (policy.getFailureThreshold() == 0) {
+            return;
+        }
+
+        if (consecutiveFailures.incrementAndGet() >= policy.getFailureThreshold()) {
+            openUntil = Platform.get().elapsedRealtime() + policy.getOpenDuration();
+            trialInFlight.set(false);
+        }
+    }
+
+    /**
+     * Records a call which ended without telling anything about the host's health (ex: it was
+     * interrupted), allowing another trial call if this one was the trial
+     */
+    void recordAbandoned() {
+        trialInFlight.set(false);
+    }
+
+    @NonNull
+    String getHost() {
+        return host;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.net.HttpURLConnection;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aborts connections which are still in use when the deadline of their ApiTask passes or the task
+ * is cancelled. Connect and read timeouts only bound a single blocking operation, a server trickling
+ * a response back can otherwise hold on to a thread well beyond the deadline.
+ *
+ * Created by agent on 10/17/26.
+ */
+class ConnectionWatchdog {
+
+    /**
+     * Cancelled aborts are purged as they are cancelled, setRemoveOnCancelPolicy requires API 21
+     */
+    private static final ScheduledThreadPoolExecutor WATCHDOG_EXECUTOR_SERVICE =
+            new ScheduledThreadPoolExecutor(1, new BackgroundThreadFactory("imoji-connection-watchdog"));
+
+    /**
+     * Disconnects connection once the current deadline expires. Callers must pass the returned
+     * future to removeAbortOnDeadline once they are done with the connection.
+     *
+     * @return The scheduled abort, null if the current thread has no deadline
+     */
+    @Nullable
+    static ScheduledFuture<?> abortOnDeadline(@NonNull final HttpURLConnection connection) {
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return null;
+        }
+
+        return WATCHDOG_EXECUTOR_SERVICE.schedule(new Runnable() {
+            @Override
+            public void run() {
+                connection.disconnect();
+            }
+        }, deadline.remaining(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels an abort scheduled by abortOnDeadline and removes it from the watchdog's queue, so
+     * that it no longer holds on to its connection until the deadline passes
+     */
+    static void removeAbortOnDeadline(@Nullable ScheduledFuture<?> abort) {
+        if (abort != null && abort.cancel(false)) {
+            WATCHDOG_EXECUTOR_SERVICE.purge();
+        }
+    }
+
+    /**
+     * Disconnects connection as soon as the current task is cancelled. Callers must pass the
+     * returned hook to removeAbortOnCancel once they are done with the connection.
+     *
+     * @return The registered hook, null if the current thread has no cancellation token
+     */
+    @Nullable
+    static Runnable abortOnCancel(@NonNull final HttpURLConnection connection) {
+        CancellationToken token = CancellationToken.current();
+        if (token == null) {
+            return null;
+        }
+
+        Runnable abort = new Runnable() {
+            @Override
+            public void run() {
+                connection.disconnect();
+            }
+        };
+        token.addHook(abort);
+
+        return abort;
+    }
+
+    static void removeAbortOnCancel(@Nullable Runnable abort) {
+        CancellationToken token = CancellationToken.current();
+        if (abort != null && token != null) {
+            token.removeHook(abort);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A point in time by which an ApiTask must complete. The deadline of the running task is tracked
+ * per thread, tasks created while it runs (ex: the token check and the individual calls of
+ * createImojiWithRawImage) inherit it and therefore share the remaining time rather than each
+ * getting a fresh timeout.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT_DEADLINE = new ThreadLocal<>();
+
+    /**
+     * Elapsed realtime at which the deadline expires
+     */
+    private final long expiresAt;
+
+    private Deadline(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return A deadline expiring once timeout elapsed from now
+     */
+    @NonNull
+    public static Deadline after(long timeout, @NonNull TimeUnit timeUnit) {
+        return new Deadline(Platform.get().elapsedRealtime() + timeUnit.toMillis(timeout));
+    }
+
+    /**
+     * @return The deadline of the task running on the current thread, null if it has none
+     */
+    @Nullable
+    public static Deadline current() {
+        return CURRENT_DEADLINE.get();
+    }
+
+    /**
+     * Makes deadline the current one for this thread
+     *
+     * @return The previous deadline, to be passed back to restore once the task completed
+     */
+    @Nullable
+    public static Deadline enter(@Nullable Deadline deadline) {
+        Deadline previous = CURRENT_DEADLINE.get();
+        CURRENT_DEADLINE.set(deadline);
+
+        return previous;
+    }
+
+    /**
+     * Restores the deadline that was current before enter was called
+     */
+    public static void restore(@Nullable Deadline previous) {
+        if (previous == null) {
+            CURRENT_DEADLINE.remove();
+        } else {
+            CURRENT_DEADLINE.set(previous);
+        }
+    }
+
+    /**
+     * @return Whichever of the two deadlines expires first, null if both are null
+     */
+    @Nullable
+    public static Deadline earliest(@Nullable Deadline first, @Nullable Deadline second) {
+        if (first == null) {
+            return second;
+        }
+
+        if (second == null) {
+            return first;
+        }
+
+        return first.expiresAt <= second.expiresAt ? first : second;
+    }
+
+    /**
+     * @throws ApiTimeoutException If the current deadline has expired
+     */
+    static void checkCurrent() throws ApiTimeoutException {
+        Deadline deadline = CURRENT_DEADLINE.get();
+        if (deadline != null && deadline.isExpired()) {
+            throw new ApiTimeoutException("Deadline exceeded");
+        }
+    }
+
+    /**
+     * @return True if the current thread has a deadline and it has expired
+     */
+    static boolean isCurrentExpired() {
+        Deadline deadline = CURRENT_DEADLINE.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * Waits for the result of a future computed on another thread, giving up once the current
+     * deadline expires or the current task is cancelled.
+     *
+     * @throws ExecutionException With an ApiTimeoutException as its cause if the deadline expired,
+     *                            or an ApiCancelledException if the task was cancelled
+     */
+    static <T> T await(@NonNull Future<T> future) throws ExecutionException, InterruptedException {
+        Deadline deadline = CURRENT_DEADLINE.get();
+        Runnable interruptHook = CancellationToken.beginInterruptible();
+        try {
+            if (deadline == null) {
+                return future.get();
+            }
+
+            return future.get(deadline.remaining(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ExecutionException(new ApiTimeoutException("Deadline exceeded while waiting on a shared call"));
+        } catch (InterruptedException e) {
+            if (CancellationToken.isCurrentCancelled()) {
+                throw new ExecutionException(new ApiCancelledException("Cancelled while waiting on a shared call"));
+            }
+
+            throw e;
+        } finally {
+            CancellationToken.endInterruptible(interruptHook);
+        }
+    }
+
+    /**
+     * @return The time left in milliseconds, 0 if expired
+     */
+    public long remaining() {
+        return Math.max(0, expiresAt - Platform.get().elapsedRealtime());
+    }
+
+    public boolean isExpired() {
+        return Platform.get().elapsedRealtime() >= expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline{" +
+                "remaining=" + remaining() +
+                '}';
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+import io.imoji.sdk.HttpTransport;
+
+/**
+ * The default HttpTransport used by the SDK. Connections are opened with HttpURLConnection and
+ * are never explicitly disconnected after a successful exchange. Once a response body has been
+ * fully read and closed the platform returns the socket to its keep-alive pool (sized by the
+ * http.maxConnections system property), so successive calls to the Imoji API reuse the existing
+ * TCP and TLS session instead of performing a new handshake.
+ *
+ * Created by agent on 10/17/26.
+ */
+public class DefaultHttpTransport implements HttpTransport {
+
+    private static final String CONNECTION_HEADER = "Connection";
+
+    private static final String KEEP_ALIVE = "keep-alive";
+
+    @NonNull
+    @Override
+    public HttpURLConnection openConnection(@NonNull URL url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty(CONNECTION_HEADER, KEEP_ALIVE);
+
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(@NonNull HttpURLConnection connection, boolean reusable) {
+        // disconnecting closes the underlying socket, only do so when it can't be pooled
+        if (!reusable) {
+            connection.disconnect();
+        }
+    }
+}
@@ -25,6 +25,11 @@ package io.imoji.sdk.internal;
 
 import android.net.Uri;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Constant strings used throughout the SDK
  */
@@ -76,6 +81,30 @@ public class ImojiSDKConstants {
         }
     }
 
+    /**
+     * Read only endpoints whose responses can be stored and revalidated with conditional requests
+     */
+    public static final Set<String> CACHEABLE_PATHS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            Paths.CATEGORIES_FETCH,
+            Paths.FEATURED,
+            Paths.FETCH_IMOJIS_BY_ID
+    )));
+
+    /**
+     * POST endpoints that only read data and can safely be retried
+     */
+    public static final Set<String> IDEMPOTENT_POST_PATHS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            Paths.FETCH_IMOJIS_BY_ID
+    )));
+
+    /**
+     * GET endpoints that record something on the server (ex: analytics) and therefore must not have
+     * concurrent identical calls collapsed into one
+     */
+    public static final Set<String> NON_COALESCABLE_PATHS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            Paths.IMOJI_USAGE
+    )));
+
     public static class Errors {
         public static final String OAUTH_VERIFICATION_ERROR_STATUS = "server_error";
     }
@@ -86,6 +115,8 @@ public class ImojiSDKConstants {
         public static final String LOCALE = "User-Locale";
 
         public static final String AUTHORIZATION = "Authorization";
+
+        public static final String ACCEPT_ENCODING = "Accept-Encoding";
     }
 
     public static class Params {
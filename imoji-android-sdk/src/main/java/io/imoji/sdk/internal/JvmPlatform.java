@@ -0,0 +1,72 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Platform for plain JVMs, logs through java.util.logging
+ *
+ * Created by agent on 10/17/26.
+ */
+class JvmPlatform extends Platform {
+
+    @Override
+    public long elapsedRealtime() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    @Override
+    public void setBackgroundThreadPriority() {
+        Thread.currentThread().setPriority(Thread.MIN_PRIORITY);
+    }
+
+    @Override
+    public void setThreadPriority(int priority) {
+        // map nice values linearly onto Java priorities, 0 being the normal priority
+        int javaPriority = Thread.NORM_PRIORITY - priority * (Thread.NORM_PRIORITY - Thread.MIN_PRIORITY) / 19;
+        Thread.currentThread().setPriority(Math.max(Thread.MIN_PRIORITY, Math.min(Thread.MAX_PRIORITY, javaPriority)));
+    }
+
+    @Override
+    public boolean isMainThread() {
+        // plain JVMs have no UI thread to protect
+        return false;
+    }
+
+    @Override
+    public void logWarning(@NonNull String tag, @NonNull String message, @Nullable Throwable throwable) {
+        Logger.getLogger(tag).log(Level.WARNING, message, throwable);
+    }
+
+    @Override
+    public void logError(@NonNull String tag, @NonNull String message, @Nullable Throwable throwable) {
+        Logger.getLogger(tag).log(Level.SEVERE, message, throwable);
+    }
+}
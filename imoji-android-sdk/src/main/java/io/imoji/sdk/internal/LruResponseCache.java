@@ -0,0 +1,252 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.imoji.sdk.ResponseCache;
+
+import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The ResponseCache of the SDK, an in-memory cache of response bodies for read only API endpoints.
+ * Each entry holds the decoded body of a response along with its ETag and Last-Modified
+ * validators. Subsequent requests for the same resource are sent as conditional requests, and a
+ * Not Modified response is served from the stored body without downloading it again.
+ *
+ * Entries are evicted in least recently used order once the total size of the stored bodies
+ * exceeds the configured limit.
+ *
+ * Created by agent on 10/17/26.
+ */
+public class LruResponseCache implements ResponseCache {
+
+    /**
+     * The default maximum number of body bytes held by the cache
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024 * 1024;
+
+    private static final String HEADER_ETAG = "ETag";
+
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
+
+    /**
+     * A stored response body along with the validators needed to revalidate it
+     */
+    public static class Entry {
+
+        @Nullable
+        private final String eTag;
+
+        @Nullable
+        private final String lastModified;
+
+        @NonNull
+        private final byte[] body;
+
+        @NonNull
+        private final Charset charset;
+
+        Entry(@Nullable String eTag, @Nullable String lastModified, @NonNull byte[] body, @NonNull Charset charset) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.body = body;
+            this.charset = charset;
+        }
+
+        @NonNull
+        byte[] getBody() {
+            return body;
+        }
+
+        @NonNull
+        Charset getCharset() {
+            return charset;
+        }
+
+        /**
+         * Adds If-None-Match and If-Modified-Since headers for the stored validators.
+         */
+        void addConditionalHeaders(@NonNull HttpURLConnection connection) {
+            if (eTag != null) {
+                connection.setRequestProperty(HEADER_IF_NONE_MATCH, eTag);
+            }
+
+            if (lastModified != null) {
+                connection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, lastModified);
+            }
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxSize;
+
+    private int size;
+
+    public LruResponseCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Builds a cache key for a request. The rotating OAuth access token is left out so that a
+     * refreshed token does not invalidate previously stored responses, as is the Authorization
+     * header. All other parameters and headers (ex: the user's locale) are part of the key.
+     *
+     * @param method     The HTTP method of the request
+     * @param path       The API path
+     * @param parameters Query string or form body parameters
+     * @param headers    Request headers
+     * @return A key uniquely identifying the request's response
+     */
+    @NonNull
+    public static String keyFor(@NonNull String method,
+                                @NonNull String path,
+                                @NonNull Map<String, String> parameters,
+                                @NonNull Map<String, String> headers) {
+        StringBuilder builder = new StringBuilder(method).append(' ').append(path);
+
+        char separator = '?';
+        for (Map.Entry<String, String> parameter : new TreeMap<>(parameters).entrySet()) {
+            if (ImojiSDKConstants.Params.AUTH_TOKEN.equals(parameter.getKey())) {
+                continue;
+            }
+
+            builder.append(separator).append(parameter.getKey()).append('=').append(parameter.getValue());
+            separator = '&';
+        }
+
+        for (Map.Entry<String, String> header : new TreeMap<>(headers).entrySet()) {
+            if (ImojiSDKConstants.Headers.AUTHORIZATION.equals(header.getKey())) {
+                continue;
+            }
+
+            builder.append('\n').append(header.getKey()).append(": ").append(header.getValue());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * @return True if responses to the supplied API path may be cached
+     */
+    public static boolean isCacheable(@NonNull String path) {
+        return ImojiSDKConstants.CACHEABLE_PATHS.contains(path);
+    }
+
+    @Nullable
+    public synchronized Entry get(@NonNull String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a response body if the connection supplied any validators. Responses without
+     * validators or those marked with no-store are removed from the cache instead.
+     *
+     * @param key        The key for the request
+     * @param connection The connection the body was read from
+     * @param body       The decoded response body
+     * @param bodyLength The number of valid bytes in body
+     * @param charset    The charset of the body
+     */
+    synchronized void put(@NonNull String key,
+                          @NonNull HttpURLConnection connection,
+                          @NonNull byte[] body,
+                          int bodyLength,
+                          @NonNull Charset charset) {
+        remove(key);
+
+        if (!isStorable(connection) || bodyLength > maxSize) {
+            return;
+        }
+
+        byte[] stored = new byte[bodyLength];
+        System.arraycopy(body, 0, stored, 0, bodyLength);
+
+        entries.put(key, new Entry(
+                connection.getHeaderField(HEADER_ETAG),
+                connection.getHeaderField(HEADER_LAST_MODIFIED),
+                stored,
+                charset
+        ));
+        size += bodyLength;
+        trimToSize();
+    }
+
+    public synchronized void remove(@NonNull String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            size -= entry.body.length;
+        }
+    }
+
+    @Override
+    public synchronized void evictAll() {
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return True if the response has validators and was not marked as no-store by the server
+     */
+    static boolean isStorable(@NonNull HttpURLConnection connection) {
+        String cacheControl = connection.getHeaderField(HEADER_CACHE_CONTROL);
+        if (cacheControl != null && cacheControl.toLowerCase(Locale.US).contains("no-store")) {
+            return false;
+        }
+
+        return connection.getHeaderField(HEADER_ETAG) != null || connection.getHeaderField(HEADER_LAST_MODIFIED) != null;
+    }
+
+    private void trimToSize() {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getValue().body.length;
+            iterator.remove();
+        }
+    }
+}
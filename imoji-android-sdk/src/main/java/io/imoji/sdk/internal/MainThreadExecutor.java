@@ -0,0 +1,105 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs commands on the main thread in batches. Commands submitted while a batch is pending join it,
+ * so a burst of completing calls costs a single main looper message rather than one each.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class MainThreadExecutor implements Executor {
+
+    private static final MainThreadExecutor INSTANCE = new MainThreadExecutor();
+
+    /**
+     * Creates the handler on first use, there is no main looper off Android
+     */
+    private static class MainHandlerHolder {
+        static final Handler INSTANCE = new Handler(Looper.getMainLooper());
+    }
+
+    @NonNull
+    private List<Runnable> pendingCommands = new ArrayList<>();
+
+    private boolean drainScheduled;
+
+    private final Runnable drainCommands = new Runnable() {
+        @Override
+        public void run() {
+            List<Runnable> commands;
+            synchronized (MainThreadExecutor.this) {
+                commands = pendingCommands;
+                pendingCommands = new ArrayList<>();
+                drainScheduled = false;
+            }
+
+            RuntimeException failure = null;
+            for (Runnable command : commands) {
+                try {
+                    command.run();
+                } catch (RuntimeException e) {
+                    // run the rest of the batch before surfacing the failure
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    };
+
+    private MainThreadExecutor() {
+    }
+
+    @NonNull
+    public static MainThreadExecutor getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+        synchronized (this) {
+            pendingCommands.add(command);
+            if (drainScheduled) {
+                return;
+            }
+
+            drainScheduled = true;
+        }
+
+        MainHandlerHolder.INSTANCE.post(drainCommands);
+    }
+}
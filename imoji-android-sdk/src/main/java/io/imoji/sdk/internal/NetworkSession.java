@@ -26,93 +26,163 @@ package io.imoji.sdk.internal;
 import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
-import android.util.Base64;
-import android.util.Log;
-import android.util.Xml;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 
 import io.imoji.sdk.ApiTask;
+import io.imoji.sdk.HttpTransport;
+import io.imoji.sdk.ImojiResultListener;
 import io.imoji.sdk.ImojiSDK;
+import io.imoji.sdk.RetryPolicy;
 import io.imoji.sdk.Session;
 import io.imoji.sdk.StoragePolicy;
-import io.imoji.sdk.objects.Artist;
-import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.TransferStatistics;
 import io.imoji.sdk.objects.Imoji;
-import io.imoji.sdk.objects.json.ArtistDeserializer;
-import io.imoji.sdk.objects.json.AttributionDeserializer;
-import io.imoji.sdk.objects.json.CategoryDeserializer;
-import io.imoji.sdk.objects.json.CategoryResultsDeserializer;
+import io.imoji.sdk.objects.json.DecodingTypeAdapterFactory;
 import io.imoji.sdk.objects.json.ErrorResponseDeserializer;
 import io.imoji.sdk.objects.json.GenericNetworkResponsDeserializer;
-import io.imoji.sdk.objects.json.ImojiAttributionsResponseDeserializer;
-import io.imoji.sdk.objects.json.ImojiDeserializer;
-import io.imoji.sdk.objects.json.ImojiResultsDeserializer;
 import io.imoji.sdk.objects.json.ImojiUploadResponseDeserializer;
 import io.imoji.sdk.objects.json.OAuthTokenDeserializer;
 import io.imoji.sdk.response.ApiResponse;
-import io.imoji.sdk.response.CategoriesResponse;
 import io.imoji.sdk.response.ErrorResponse;
 import io.imoji.sdk.response.GenericApiResponse;
-import io.imoji.sdk.response.ImojiAttributionsResponse;
 import io.imoji.sdk.response.ImojiUploadResponse;
 import io.imoji.sdk.response.ImojisResponse;
 import io.imoji.sdk.response.OAuthTokenResponse;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.StringWriter;
+import java.io.Reader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.Charset;
 import java.util.Collections;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 
 public abstract class NetworkSession implements Session {
 
-    private static final Gson GSON_INSTANCE = new GsonBuilder()
-            .registerTypeAdapter(Artist.class, new ArtistDeserializer())
-            .registerTypeAdapter(Category.class, new CategoryDeserializer())
-            .registerTypeAdapter(CategoriesResponse.class, new CategoryResultsDeserializer())
-            .registerTypeAdapter(GenericApiResponse.class, new GenericNetworkResponsDeserializer())
-            .registerTypeAdapter(Imoji.class, new ImojiDeserializer())
-            .registerTypeAdapter(ImojisResponse.class, new ImojiResultsDeserializer())
-            .registerTypeAdapter(ImojiAttributionsResponse.class, new ImojiAttributionsResponseDeserializer())
-            .registerTypeAdapter(Category.Attribution.class, new AttributionDeserializer())
-            .registerTypeAdapter(OAuthTokenResponse.class, new OAuthTokenDeserializer())
-            .registerTypeAdapter(ImojiUploadResponse.class, new ImojiUploadResponseDeserializer())
-            .registerTypeAdapter(ErrorResponse.class, new ErrorResponseDeserializer())
-            .create();
+    private static final Gson GSON_INSTANCE = createGson(false);
+
+    /**
+     * Used by sessions with lazy result decoding, decodes the contents of ImojisResponses on access
+     */
+    private static final Gson LAZY_GSON_INSTANCE = createGson(true);
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    protected static final ByteArrayPool BYTE_ARRAY_POOL = new ByteArrayPool(64 * 1024);
+
+    /**
+     * Setting Accept-Encoding explicitly turns off HttpURLConnection's own transparent gzip
+     * handling, responses are decoded by ResponseBodyInputStream instead.
+     */
+    private static final String ACCEPTED_ENCODINGS =
+            ResponseBodyInputStream.ENCODING_GZIP + ", " + ResponseBodyInputStream.ENCODING_DEFLATE;
 
     @NonNull
     protected final StoragePolicy storagePolicy;
 
+    @NonNull
+    protected final HttpTransport httpTransport;
+
+    @NonNull
+    protected final RetryPolicy retryPolicy;
+
+    /**
+     * Connect and read timeout of each request in milliseconds
+     */
+    private final int requestTimeout;
+
+    @Nullable
+    private final LruResponseCache responseCache;
+
+    @NonNull
+    private final TransferCounters transferStatistics = new TransferCounters();
+
+    @NonNull
+    private final OAuthTokenManager tokenManager;
+
+    @NonNull
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    private final boolean lazyResultDecodingEnabled;
+
+    @NonNull
+    private final Gson gson;
+
+    /**
+     * Whether a subclass still overrides deserializeJsonResponse(Class, String), in which case
+     * response bodies are buffered into a String for it instead of being streamed
+     */
+    private final boolean stringDeserializerOverridden;
+
     protected NetworkSession(@NonNull StoragePolicy storagePolicy) {
+        this(storagePolicy, ImojiSDK.getInstance().getHttpTransport());
+    }
+
+    protected NetworkSession(@NonNull StoragePolicy storagePolicy, @NonNull HttpTransport httpTransport) {
+        this(storagePolicy, httpTransport, ImojiSDK.getInstance().getRetryPolicy());
+    }
+
+    protected NetworkSession(@NonNull StoragePolicy storagePolicy,
+                             @NonNull HttpTransport httpTransport,
+                             @NonNull RetryPolicy retryPolicy) {
         this.storagePolicy = storagePolicy;
+        this.httpTransport = httpTransport;
+        this.retryPolicy = retryPolicy;
+        this.requestTimeout = ImojiSDK.getInstance().getRequestTimeout();
+        // ImojiSDK only creates LruResponseCaches
+        this.responseCache = (LruResponseCache) ImojiSDK.getInstance().getResponseCache();
+        this.lazyResultDecodingEnabled = ImojiSDK.getInstance().isLazyResultDecodingEnabled();
+        this.gson = lazyResultDecodingEnabled ? LAZY_GSON_INSTANCE : GSON_INSTANCE;
+        this.stringDeserializerOverridden = overridesStringDeserializer(getClass());
+        this.tokenManager = new OAuthTokenManager(this, storagePolicy);
+    }
+
+    @NonNull
+    @Override
+    public TransferStatistics getTransferStatistics() {
+        return transferStatistics;
     }
 
     protected <T extends ApiResponse> ApiTask<T> validatedGet(@NonNull String path,
                                                               @NonNull final Class<T> responseClass,
                                                               @Nullable Map<String, String> queryStrings,
                                                               @Nullable Map<String, String> headers) {
-        return oauthValidatedQueryStringConnection(path, "GET", responseClass, checkedPairMap(queryStrings), checkedPairMap(headers));
+        Map<String, String> checkedQueryStrings = checkedPairMap(queryStrings);
+        Map<String, String> checkedHeaders = checkedPairMap(headers);
+        Callable<T> call = oauthValidatedQueryStringCall(path, "GET", responseClass, null, checkedQueryStrings, checkedHeaders);
+
+        if (ImojiSDKConstants.NON_COALESCABLE_PATHS.contains(path)) {
+            return new ApiTask<>(call);
+        }
+
+        // the OAuth token is only added by the call itself and is therefore not part of the key
+        return coalescedConnection(LruResponseCache.keyFor("GET", path, checkedQueryStrings, checkedHeaders), call);
     }
 
     protected <T extends ApiResponse> ApiTask<T> validatedDelete(@NonNull String path,
                                                                  @NonNull final Class<T> responseClass,
                                                                  @Nullable Map<String, String> queryStrings,
                                                                  @Nullable Map<String, String> headers) {
-        return oauthValidatedQueryStringConnection(path, "DELETE", responseClass, checkedPairMap(queryStrings), checkedPairMap(headers));
+        return oauthValidatedQueryStringConnection(path, "DELETE", responseClass, null, checkedPairMap(queryStrings), checkedPairMap(headers));
     }
 
     protected <T extends ApiResponse> ApiTask<T> validatedPost(@NonNull String path,
@@ -133,14 +203,14 @@ public abstract class NetworkSession implements Session {
                                                                 @NonNull final Class<T> responseClass,
                                                                 @Nullable Map<String, String> queryStrings,
                                                                 @Nullable Map<String, String> headers) {
-        return queryStringConnection(path, "GET", responseClass, checkedPairMap(queryStrings), checkedPairMap(headers));
+        return queryStringConnection(path, "GET", responseClass, null, checkedPairMap(queryStrings), checkedPairMap(headers));
     }
 
     protected <T extends ApiResponse> ApiTask<T> makeDeleteRequest(@NonNull String path,
                                                                    @NonNull final Class<T> responseClass,
                                                                    @Nullable Map<String, String> queryStrings,
                                                                    @Nullable Map<String, String> headers) {
-        return queryStringConnection(path, "DELETE", responseClass, checkedPairMap(queryStrings), checkedPairMap(headers));
+        return queryStringConnection(path, "DELETE", responseClass, null, checkedPairMap(queryStrings), checkedPairMap(headers));
     }
 
     protected <T extends ApiResponse> ApiTask<T> makePostRequest(@NonNull String path,
@@ -157,109 +227,118 @@ public abstract class NetworkSession implements Session {
         return formEncodedConnection(path, "PUT", responseClass, checkedPairMap(body), checkedPairMap(headers));
     }
 
+    /**
+     * Makes a GET call for an ImojisResponse which reports each imoji to the listener as soon as it
+     * has been decoded from the connection. The calls are not coalesced with identical ones since
+     * every caller must receive its own callbacks.
+     *
+     * @param listenerExecutor Runs the listener's callbacks in the order they were decoded
+     */
+    protected ApiTask<ImojisResponse> validatedStreamingGet(@NonNull String path,
+                                                            @Nullable Map<String, String> queryStrings,
+                                                            @NonNull ImojiResultListener listener,
+                                                            @NonNull Executor listenerExecutor) {
+        final ImojiResultListener postingListener = new PostingResultListener(listener, listenerExecutor);
+        final Callable<ImojisResponse> call = oauthValidatedQueryStringCall(
+                path,
+                "GET",
+                ImojisResponse.class,
+                DecodingTypeAdapterFactory.imojisResponses(lazyResultDecodingEnabled, postingListener)
+                        .create(gson, TypeToken.get(ImojisResponse.class)),
+                checkedPairMap(queryStrings),
+                Collections.<String, String>emptyMap()
+        );
+
+        return new ApiTask<>(new Callable<ImojisResponse>() {
+            @Override
+            public ImojisResponse call() throws Exception {
+                ImojisResponse response = call.call();
+                postingListener.onComplete(response);
+
+                return response;
+            }
+        });
+    }
+
     protected ApiTask<GenericApiResponse> makePutDataRequest(@NonNull Uri uri,
                                                              @NonNull byte[] body,
                                                              @Nullable Map<String, String> headers) {
-        return dataUploadFormEncodedConnection(uri, "PUT", body, checkedPairMap(headers));
+        return makePutDataRequest(uri, UploadBody.create(body, 0, body.length), headers);
     }
 
-    protected String oauthCredentialsHeader() {
-        return "Basic " +
-                Base64.encodeToString((ImojiSDK.getInstance().getClientId().toString() + ":" + ImojiSDK.getInstance().getApiToken()).getBytes(),
-                        Base64.NO_PADDING | Base64.NO_WRAP | Base64.URL_SAFE
-                );
+    protected ApiTask<GenericApiResponse> makePutDataRequest(@NonNull Uri uri,
+                                                             @NonNull UploadBody body,
+                                                             @Nullable Map<String, String> headers) {
+        return dataUploadFormEncodedConnection(uri, "PUT", body, checkedPairMap(headers));
     }
 
-    private ApiTask<OAuthTokenResponse> validateSession() {
-        return new ApiTask<>(new Callable<OAuthTokenResponse>() {
-
-            @Override
-            public OAuthTokenResponse call() throws Exception {
-                String clientId = NetworkSession.this.storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_ID_KEY, null);
-                String clientToken = NetworkSession.this.storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_TOKEN_KEY, null);
-
-                // if the client credentials changed, the oauth info is no longer valid
-                boolean validClientInfo =
-                        ImojiSDK.getInstance().getApiToken().equals(clientToken) && ImojiSDK.getInstance().getClientId().toString().equals(clientId);
-
-                String accessToken = NetworkSession.this.storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY, null);
-                String refreshToken = NetworkSession.this.storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY, null);
-                long expiration = NetworkSession.this.storagePolicy.getLong(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY, 0);
-                boolean refreshTokenExpired = new Date(expiration).before(new Date());
-                if (validClientInfo && accessToken != null && refreshToken != null && !refreshTokenExpired) {
-                    return new OAuthTokenResponse(accessToken, expiration, refreshToken);
-                }
-
-                Map<String, String> headers = new HashMap<>(2);
-                Map<String, String> body = new HashMap<>(1);
+    /**
+     * Opens a connection with connect and read timeouts bounded by both the session's request
+     * timeout and the time left before the current deadline.
+     */
+    @NonNull
+    private HttpURLConnection openConnection(@NonNull URL url) throws IOException {
+        Deadline.checkCurrent();
+        CancellationToken.checkCurrent();
+
+        int timeout = requestTimeout;
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            timeout = (int) Math.max(1, Math.min(timeout, deadline.remaining()));
+        }
 
-                headers.put(ImojiSDKConstants.Headers.SDK_VERSION, ImojiSDKConstants.SERVER_SDK_VERSION);
-                headers.put(ImojiSDKConstants.Headers.AUTHORIZATION, oauthCredentialsHeader());
+        HttpURLConnection connection = httpTransport.openConnection(url);
+        connection.setConnectTimeout(timeout);
+        connection.setReadTimeout(timeout);
 
-                // refresh token expired, use the refresh_token grant type to get a new one
-                OAuthTokenResponse oAuthTokenResponse;
-                if (refreshTokenExpired && refreshToken != null) {
-                    body.put("grant_type", "refresh_token");
-                    body.put("refresh_token", refreshToken);
-                    oAuthTokenResponse = makePostRequest(ImojiSDKConstants.Paths.OAUTH_REGISTER, OAuthTokenResponse.class, body, headers).executeImmediately();
-                } else {
-                    // get a new one all together
-                    body.put("grant_type", "client_credentials");
-                    oAuthTokenResponse = makePostRequest(ImojiSDKConstants.Paths.OAUTH_REGISTER, OAuthTokenResponse.class, body, headers).executeImmediately();
-                }
-
-                if (oAuthTokenResponse != null) {
-                    NetworkSession.this.storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_ID_KEY, ImojiSDK.getInstance().getClientId().toString());
-                    NetworkSession.this.storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_TOKEN_KEY, ImojiSDK.getInstance().getApiToken());
-                    NetworkSession.this.storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY, oAuthTokenResponse.getAccessToken());
-                    NetworkSession.this.storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY, oAuthTokenResponse.getRefreshToken());
-                    NetworkSession.this.storagePolicy.putLong(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY, oAuthTokenResponse.getExpiration());
-                }
+        return connection;
+    }
 
-                return oAuthTokenResponse;
-            }
-        });
+    protected String oauthCredentialsHeader() {
+        return tokenManager.getCredentialsHeader();
     }
 
     private <T extends ApiResponse> ApiTask<T> queryStringConnection(@NonNull final String path,
                                                                      @NonNull final String method,
                                                                      @NonNull final Class<T> responseClass,
+                                                                     @Nullable final TypeAdapter<T> responseAdapter,
                                                                      @NonNull final Map<String, String> queryStrings,
                                                                      @NonNull final Map<String, String> headers) {
-        return new ApiTask<>(new Callable<T>() {
+        Callable<T> attempt = new ConnectionAttempt<T>() {
+            @NonNull
             @Override
-            public T call() throws Exception {
-                HttpURLConnection connection = null;
-                try {
-                    Uri.Builder uriBuilder = ImojiSDKConstants.SERVER_URL.buildUpon().appendEncodedPath(path);
+            URL url() throws IOException {
+                Uri.Builder uriBuilder = ImojiSDKConstants.SERVER_URL.buildUpon().appendEncodedPath(path);
 
-                    for (Map.Entry<String, String> query : queryStrings.entrySet()) {
-                        uriBuilder.appendQueryParameter(query.getKey(), query.getValue());
-                    }
+                for (Map.Entry<String, String> query : queryStrings.entrySet()) {
+                    uriBuilder.appendQueryParameter(query.getKey(), query.getValue());
+                }
+
+                return new URL(uriBuilder.build().toString());
+            }
 
-                    URL url = new URL(uriBuilder.build().toString());
-                    connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod(method);
+            @Override
+            T perform(@NonNull HttpURLConnection connection) throws Exception {
+                connection.setRequestMethod(method);
 
-                    //set headers
-                    for (Map.Entry<String, String> header : headers.entrySet()) {
-                        connection.setRequestProperty(header.getKey(), header.getValue());
-                    }
+                //set headers
+                connection.setRequestProperty(ImojiSDKConstants.Headers.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
 
-                    connection.connect();
+                String cacheKey = cacheKeyFor(method, path, queryStrings, headers);
+                LruResponseCache.Entry cachedEntry = addConditionalHeaders(connection, cacheKey);
 
-                    return readJsonResponse(connection, responseClass);
+                connection.connect();
 
-                } catch (Throwable t) {
-                    Log.e(NetworkSession.class.getName(), "Unable to perform network request", t);
-                    throw t;
-                } finally {
-                    if (connection != null) {
-                        connection.disconnect();
-                    }
-                }
+                return readJsonResponse(connection, responseClass, responseAdapter, cacheKey, cachedEntry);
             }
-        });
+        };
+
+        return new ApiTask<>(new RetryingCallable<>(
+                attempt, retryPolicy, ImojiSDKConstants.SERVER_URL.getHost(), isIdempotent(method, path)
+        ));
     }
 
     private <T extends ApiResponse> ApiTask<T> formEncodedConnection(@NonNull final String path,
@@ -267,116 +346,245 @@ public abstract class NetworkSession implements Session {
                                                                      @NonNull final Class<T> responseClass,
                                                                      @NonNull final Map<String, String> body,
                                                                      @NonNull final Map<String, String> headers) {
-        return new ApiTask<>(new Callable<T>() {
+        Callable<T> attempt = new ConnectionAttempt<T>() {
+            @NonNull
             @Override
-            public T call() throws Exception {
-                HttpURLConnection connection = null;
-                OutputStream outputStream = null;
-                try {
-                    Uri.Builder uriBuilder = ImojiSDKConstants.SERVER_URL.buildUpon().appendEncodedPath(path);
-                    URL url = new URL(uriBuilder.build().toString());
+            URL url() throws IOException {
+                Uri.Builder uriBuilder = ImojiSDKConstants.SERVER_URL.buildUpon().appendEncodedPath(path);
+                return new URL(uriBuilder.build().toString());
+            }
 
-                    connection = (HttpURLConnection) url.openConnection();
-                    connection.setRequestMethod(method);
-                    connection.setDoInput(true);
-                    connection.setDoOutput(true);
+            @Override
+            T perform(@NonNull HttpURLConnection connection) throws Exception {
+                connection.setRequestMethod(method);
+                connection.setDoInput(true);
+                connection.setDoOutput(true);
+
+                //set headers
+                connection.setRequestProperty(ImojiSDKConstants.Headers.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
 
-                    //set headers
-                    for (Map.Entry<String, String> header : headers.entrySet()) {
-                        connection.setRequestProperty(header.getKey(), header.getValue());
-                    }
+                String cacheKey = cacheKeyFor(method, path, body, headers);
+                LruResponseCache.Entry cachedEntry = addConditionalHeaders(connection, cacheKey);
 
-                    Uri.Builder bodyBuilder = new Uri.Builder();
-                    for (Map.Entry<String, String> query : body.entrySet()) {
-                        bodyBuilder.appendQueryParameter(query.getKey(), query.getValue());
-                    }
-                    String query = bodyBuilder.build().getEncodedQuery();
-                    outputStream = connection.getOutputStream();
+                Uri.Builder bodyBuilder = new Uri.Builder();
+                for (Map.Entry<String, String> query : body.entrySet()) {
+                    bodyBuilder.appendQueryParameter(query.getKey(), query.getValue());
+                }
+                String query = bodyBuilder.build().getEncodedQuery();
+                OutputStream outputStream = connection.getOutputStream();
+                try {
                     BufferedWriter writer = new BufferedWriter(
-                            new OutputStreamWriter(outputStream, Xml.Encoding.UTF_8.name())
+                            new OutputStreamWriter(outputStream, UTF_8)
                     );
 
                     writer.write(query);
                     writer.flush();
                     writer.close();
-
-                    connection.connect();
-
-                    return readJsonResponse(connection, responseClass);
-
-                } catch (Throwable t) {
-                    Log.e(NetworkSession.class.getName(), "Unable to perform network request", t);
-                    throw t;
                 } finally {
-                    if (connection != null) {
-                        connection.disconnect();
-                    }
-
-                    if (outputStream != null) {
-                        outputStream.close();
-                    }
+                    outputStream.close();
                 }
+
+                connection.connect();
+
+                return readJsonResponse(connection, responseClass, null, cacheKey, cachedEntry);
             }
-        });
+        };
+
+        return new ApiTask<>(new RetryingCallable<>(
+                attempt, retryPolicy, ImojiSDKConstants.SERVER_URL.getHost(), isIdempotent(method, path)
+        ));
     }
 
     private ApiTask<GenericApiResponse> dataUploadFormEncodedConnection(@NonNull final Uri uri,
                                                                         @NonNull final String method,
-                                                                        @NonNull final byte[] body,
+                                                                        @NonNull final UploadBody body,
                                                                         @NonNull final Map<String, String> headers) {
-        return new ApiTask<>(new Callable<GenericApiResponse>() {
+        return new ApiTask<>(new ConnectionAttempt<GenericApiResponse>() {
+            @NonNull
             @Override
-            public GenericApiResponse call() throws Exception {
-                HttpURLConnection connection = null;
-                OutputStream outputStream;
-                try {
-                    URL url = new URL(uri.toString());
+            URL url() throws IOException {
+                return new URL(uri.toString());
+            }
 
-                    connection = (HttpURLConnection) url.openConnection();
-                    connection.setDoOutput(true);
-                    connection.setDoInput(true);
-                    connection.setUseCaches(false);
-                    connection.setRequestMethod(method);
+            @Override
+            GenericApiResponse perform(@NonNull HttpURLConnection connection) throws Exception {
+                connection.setDoOutput(true);
+                connection.setDoInput(true);
+                connection.setUseCaches(false);
+                connection.setRequestMethod(method);
+
+                //set headers
+                for (Map.Entry<String, String> header : headers.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
 
-                    //set headers
-                    for (Map.Entry<String, String> header : headers.entrySet()) {
-                        connection.setRequestProperty(header.getKey(), header.getValue());
-                    }
+                // stream the body out rather than having HttpURLConnection buffer all of it
+                long contentLength = body.getContentLength();
+                if (contentLength >= 0 && contentLength <= Integer.MAX_VALUE) {
+                    connection.setFixedLengthStreamingMode((int) contentLength);
+                } else {
+                    connection.setChunkedStreamingMode(0);
+                }
 
-                    outputStream = connection.getOutputStream();
-                    outputStream.write(body, 0, body.length);
-                    outputStream.flush();
-                    outputStream.close();
+                OutputStream outputStream = connection.getOutputStream();
+                body.writeTo(outputStream);
+                outputStream.flush();
+                outputStream.close();
 
-                    if (connection.getResponseCode() == 200) {
-                        return new GenericApiResponse();
-                    }
+                if (connection.getResponseCode() == 200) {
+                    drainAndClose(connection.getInputStream());
+                    return new GenericApiResponse();
+                }
 
-                    throw new IOException("Data upload failed to " + url);
+                throw new IOException("Data upload failed to " + connection.getURL());
+            }
+        });
+    }
 
-                } catch (Throwable t) {
-                    Log.e(NetworkSession.class.getName(), "Unable to perform network request", t);
-                    throw t;
-                } finally {
-                    if (connection != null) {
-                        connection.disconnect();
+    /**
+     * Hands the callbacks of a listener to an executor, keeping the decoding thread free to read the
+     * rest of the response.
+     */
+    private static final class PostingResultListener implements ImojiResultListener {
+
+        @NonNull
+        private final ImojiResultListener listener;
+
+        @NonNull
+        private final Executor executor;
+
+        PostingResultListener(@NonNull ImojiResultListener listener, @NonNull Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onImoji(@NonNull final Imoji imoji, final int index) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onImoji(imoji, index);
+                }
+            });
+        }
+
+        @Override
+        public void onComplete(@NonNull final ImojisResponse response) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onComplete(response);
+                }
+            });
+        }
+    }
+
+    /**
+     * A single request made over a connection of the HttpTransport. The connection is aborted once
+     * the deadline of the calling task expires or the task is cancelled, failures caused by either
+     * are reported as ApiTimeoutException and ApiCancelledException, and the connection is
+     * released once the attempt completed.
+     */
+    private abstract class ConnectionAttempt<T> implements Callable<T> {
+
+        /**
+         * @return The URL to connect to
+         */
+        @NonNull
+        abstract URL url() throws IOException;
+
+        /**
+         * Makes the request over connection and reads its response. The connection is reused if
+         * this returns, or throws an ApiException after reading the error body.
+         */
+        abstract T perform(@NonNull HttpURLConnection connection) throws Exception;
+
+        @Override
+        public final T call() throws Exception {
+            HttpURLConnection connection = null;
+            ScheduledFuture<?> watchdog = null;
+            Runnable abortOnCancel = null;
+            boolean reusable = false;
+            try {
+                connection = openConnection(url());
+                watchdog = ConnectionWatchdog.abortOnDeadline(connection);
+                abortOnCancel = ConnectionWatchdog.abortOnCancel(connection);
+
+                T response = perform(connection);
+                reusable = true;
+                return response;
+
+            } catch (Throwable t) {
+                // ApiExceptions are only raised after the error body has been fully read
+                reusable = t instanceof ApiException;
+                if (t instanceof IOException && !(t instanceof ApiCancelledException) && CancellationToken.isCurrentCancelled()) {
+                    // the connection was aborted by cancelling the task
+                    throw new ApiCancelledException("Call cancelled", t);
+                }
+
+                Platform.get().logError(NetworkSession.class.getName(), "Unable to perform network request", t);
+                if (t instanceof IOException && !(t instanceof ApiTimeoutException) && Deadline.isCurrentExpired()) {
+                    // the watchdog aborted the connection
+                    throw new ApiTimeoutException("Deadline exceeded", t);
+                }
+
+                throw t;
+            } finally {
+                ConnectionWatchdog.removeAbortOnDeadline(watchdog);
+                ConnectionWatchdog.removeAbortOnCancel(abortOnCancel);
+
+                if (connection != null) {
+                    httpTransport.releaseConnection(connection, reusable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Shares a single execution of call between all concurrent callers with the same key
+     */
+    private <T extends ApiResponse> ApiTask<T> coalescedConnection(@NonNull final String key,
+                                                                   @NonNull final Callable<T> call) {
+        return new ApiTask<>(new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                try {
+                    return requestCoalescer.execute(key, call);
+                } catch (ExecutionException e) {
+                    // rethrow what the shared call threw, as if it had been called directly
+                    if (e.getCause() instanceof Exception) {
+                        throw (Exception) e.getCause();
                     }
+
+                    throw e;
                 }
             }
         });
     }
 
-    private <T extends ApiResponse> ApiTask<T> oauthValidatedQueryStringConnection(@NonNull final String path,
-                                                                                   @NonNull final String method,
-                                                                                   @NonNull final Class<T> responseClass,
-                                                                                   @NonNull final Map<String, String> queryStrings,
-                                                                                   @NonNull final Map<String, String> headers) {
-        return new ApiTask<>(new Callable<T>() {
+    private <T extends ApiResponse> ApiTask<T> oauthValidatedQueryStringConnection(@NonNull String path,
+                                                                                   @NonNull String method,
+                                                                                   @NonNull Class<T> responseClass,
+                                                                                   @Nullable TypeAdapter<T> responseAdapter,
+                                                                                   @NonNull Map<String, String> queryStrings,
+                                                                                   @NonNull Map<String, String> headers) {
+        return new ApiTask<>(oauthValidatedQueryStringCall(path, method, responseClass, responseAdapter, queryStrings, headers));
+    }
+
+    private <T extends ApiResponse> Callable<T> oauthValidatedQueryStringCall(@NonNull final String path,
+                                                                              @NonNull final String method,
+                                                                              @NonNull final Class<T> responseClass,
+                                                                              @Nullable final TypeAdapter<T> responseAdapter,
+                                                                              @NonNull final Map<String, String> queryStrings,
+                                                                              @NonNull final Map<String, String> headers) {
+        return new Callable<T>() {
             @Override
             public T call() throws Exception {
-                OAuthTokenResponse oAuthTokenResponse;
+                OAuthTokenResponse oAuthTokenResponse = tokenManager.getToken();
                 try {
-                    oAuthTokenResponse = validateSession().executeImmediately(ApiTask.THREAD_POOL_EXECUTOR_VALIDATE);
                     Map<String, String> headersWithOauth = new HashMap<>(headers);
                     Map<String, String> queryStringsWithOauth = new HashMap<>(queryStrings);
 
@@ -384,31 +592,30 @@ public abstract class NetworkSession implements Session {
                     headersWithOauth.put(ImojiSDKConstants.Headers.LOCALE, Locale.getDefault().toString());
                     queryStringsWithOauth.put(ImojiSDKConstants.Params.AUTH_TOKEN, oAuthTokenResponse.getAccessToken());
 
-                    return queryStringConnection(path, method, responseClass, queryStringsWithOauth, headersWithOauth).executeImmediately();
+                    return queryStringConnection(
+                            path, method, responseClass, responseAdapter, queryStringsWithOauth, headersWithOauth
+                    ).executeImmediately();
 
-                } catch (InterruptedException | ExecutionException e) {
-                    if (e.getCause().getClass().isAssignableFrom(ApiException.class)) {
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ApiException) {
                         ApiException apiException = (ApiException) e.getCause();
                         ErrorResponse errorResponse = apiException.getErrorResponse();
 
-                        // OAuth token verification error occurred, reset the token settings,
-                        // generate a new token and call the same method again
+                        // OAuth token verification error occurred, discard the rejected token,
+                        // generate a new one and call the same method again
                         if (errorResponse != null && ImojiSDKConstants.Errors.OAUTH_VERIFICATION_ERROR_STATUS.equals(errorResponse.getServerStatus())) {
-                            clearOauthSettings();
-                            oAuthTokenResponse = validateSession().executeImmediately(ApiTask.THREAD_POOL_EXECUTOR_VALIDATE);
-
-                            if (oAuthTokenResponse != null) {
-                                return oauthValidatedQueryStringConnection(
-                                        path, method, responseClass, queryStrings, headers
-                                ).executeImmediately();
-                            }
+                            tokenManager.refreshRejectedToken(oAuthTokenResponse);
+
+                            return oauthValidatedQueryStringConnection(
+                                    path, method, responseClass, responseAdapter, queryStrings, headers
+                            ).executeImmediately();
                         }
                     }
 
                     throw e;
                 }
             }
-        });
+        };
     }
 
     private <T extends ApiResponse> ApiTask<T> oauthValidatedFormEncodedConnection(@NonNull final String path,
@@ -419,9 +626,8 @@ public abstract class NetworkSession implements Session {
         return new ApiTask<>(new Callable<T>() {
             @Override
             public T call() throws Exception {
-                OAuthTokenResponse oAuthTokenResponse;
+                OAuthTokenResponse oAuthTokenResponse = tokenManager.getToken();
                 try {
-                    oAuthTokenResponse = validateSession().executeImmediately(ApiTask.THREAD_POOL_EXECUTOR_VALIDATE);
                     Map<String, String> headersWithOauth = new HashMap<>(headers);
                     Map<String, String> bodyWithOauth = new HashMap<>(body);
 
@@ -431,22 +637,19 @@ public abstract class NetworkSession implements Session {
 
                     return formEncodedConnection(path, method, responseClass, bodyWithOauth, headersWithOauth).executeImmediately();
 
-                } catch (InterruptedException | ExecutionException e) {
-                    if (e.getCause().getClass().isAssignableFrom(ApiException.class)) {
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ApiException) {
                         ApiException apiException = (ApiException) e.getCause();
                         ErrorResponse errorResponse = apiException.getErrorResponse();
 
-                        // OAuth token verification error occurred, reset the token settings,
-                        // generate a new token and call the same method again
+                        // OAuth token verification error occurred, discard the rejected token,
+                        // generate a new one and call the same method again
                         if (errorResponse != null && ImojiSDKConstants.Errors.OAUTH_VERIFICATION_ERROR_STATUS.equals(errorResponse.getServerStatus())) {
-                            clearOauthSettings();
-                            oAuthTokenResponse = validateSession().executeImmediately(ApiTask.THREAD_POOL_EXECUTOR_VALIDATE);
-
-                            if (oAuthTokenResponse != null) {
-                                return oauthValidatedFormEncodedConnection(
-                                        path, method, responseClass, body, headers
-                                ).executeImmediately();
-                            }
+                            tokenManager.refreshRejectedToken(oAuthTokenResponse);
+
+                            return oauthValidatedFormEncodedConnection(
+                                    path, method, responseClass, body, headers
+                            ).executeImmediately();
                         }
                     }
 
@@ -457,46 +660,322 @@ public abstract class NetworkSession implements Session {
     }
 
     private <T extends ApiResponse> T readJsonResponse(@NonNull HttpURLConnection connection,
-                                                       @NonNull Class<T> responseClass) throws IOException, ApiException {
+                                                       @NonNull Class<T> responseClass,
+                                                       @Nullable TypeAdapter<T> responseAdapter,
+                                                       @Nullable String cacheKey,
+                                                       @Nullable LruResponseCache.Entry cachedEntry) throws IOException, ApiException {
+        int responseCode = connection.getResponseCode();
+
+        if (cachedEntry != null && isNotModified(connection.getRequestMethod(), responseCode)) {
+            // the stored body is still current, only headers were sent over the wire
+            InputStream inputStream = responseCode < HttpURLConnection.HTTP_BAD_REQUEST ?
+                    connection.getInputStream() : connection.getErrorStream();
+            if (inputStream != null) {
+                drainAndClose(inputStream);
+            }
+
+            return decodeJsonResponse(responseClass, responseAdapter, new InputStreamReader(
+                    new ByteArrayInputStream(cachedEntry.getBody()), cachedEntry.getCharset()
+            ));
+        }
 
+        boolean succeeded = responseCode == HttpURLConnection.HTTP_OK ||
+                responseCode == HttpURLConnection.HTTP_CREATED ||
+                responseCode == HttpURLConnection.HTTP_ACCEPTED;
+        Charset charset = charsetForContentType(connection.getContentType());
 
-        boolean succeeded = connection.getResponseCode() == HttpURLConnection.HTTP_OK ||
-                connection.getResponseCode() == HttpURLConnection.HTTP_CREATED ||
-                connection.getResponseCode() == HttpURLConnection.HTTP_ACCEPTED;
-        BufferedReader inputReader;
         if (succeeded) {
-            inputReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        } else {
-            inputReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
+            if (cacheKey != null && responseCache != null) {
+                // buffering would hold back incrementally delivered results until the body was read
+                if (LruResponseCache.isStorable(connection) && responseAdapter == null) {
+                    return readAndCacheJsonResponse(connection, responseClass, cacheKey, charset);
+                }
+
+                responseCache.remove(cacheKey);
+            }
+
+            // decode directly off of the socket rather than buffering the entire body first
+            ResponseBodyInputStream inputStream = ResponseBodyInputStream.open(
+                    connection.getInputStream(), connection.getContentEncoding(), transferStatistics
+            );
+            Reader reader = new InputStreamReader(inputStream, charset);
+            try {
+                T response = decodeJsonResponse(responseClass, responseAdapter, reader);
+
+                // consume any trailing bytes so the connection can be kept alive
+                drain(inputStream);
+                return response;
+            } finally {
+                reader.close();
+            }
         }
-        StringWriter stringWriter = new StringWriter();
 
-        String line;
-        while ((line = inputReader.readLine()) != null) {
-            stringWriter.append(line);
+        String contents = readErrorContents(connection, charset);
+        try {
+            throw new ApiException(GSON_INSTANCE.fromJson(contents, ErrorResponse.class), responseCode);
+        } catch (JsonParseException e) {
+            throw new ApiException("Unable to parse server response", new ErrorResponse("server_error", contents), responseCode);
         }
+    }
 
-        String contents = stringWriter.toString();
-        if (succeeded) {
-            return deserializeJsonResponse(responseClass, contents);
-        } else {
-            try {
-                throw new ApiException(GSON_INSTANCE.fromJson(contents, ErrorResponse.class));
-            } catch (JsonParseException e) {
-                throw new ApiException("Unable to parse server response", new ErrorResponse("server_error", contents));
+    /**
+     * Decodes a response with the supplied TypeAdapter, or with deserializeJsonResponse if there is
+     * none.
+     */
+    private <T extends ApiResponse> T decodeJsonResponse(@NonNull Class<T> responseClass,
+                                                         @Nullable TypeAdapter<T> responseAdapter,
+                                                         @NonNull Reader reader) throws IOException {
+        if (responseAdapter == null) {
+            return deserializeResponseBody(responseClass, reader);
+        }
+
+        JsonReader jsonReader = new JsonReader(reader);
+        // mirror Gson.fromJson, which reads leniently and reports malformed JSON as a JsonSyntaxException
+        jsonReader.setLenient(true);
+        try {
+            return responseAdapter.read(jsonReader);
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * Buffers a response body that carries cache validators, stores it in the response cache and
+     * decodes it from the buffer.
+     */
+    private <T extends ApiResponse> T readAndCacheJsonResponse(@NonNull HttpURLConnection connection,
+                                                               @NonNull Class<T> responseClass,
+                                                               @NonNull String cacheKey,
+                                                               @NonNull Charset charset) throws IOException {
+        ResponseBodyInputStream inputStream = ResponseBodyInputStream.open(
+                connection.getInputStream(), connection.getContentEncoding(), transferStatistics
+        );
+        PoolingByteArrayOutputStream outputStream = new PoolingByteArrayOutputStream(
+                BYTE_ARRAY_POOL, Math.max(connection.getContentLength(), ByteArrayPool.DEFAULT_BUFFER_SIZE)
+        );
+        try {
+            outputStream.readFrom(inputStream);
+            drain(inputStream);
+
+            if (responseCache != null) {
+                responseCache.put(cacheKey, connection, outputStream.getBuffer(), outputStream.size(), charset);
             }
+
+            return deserializeResponseBody(responseClass, new InputStreamReader(
+                    new ByteArrayInputStream(outputStream.getBuffer(), 0, outputStream.size()), charset
+            ));
+        } finally {
+            outputStream.close();
+            inputStream.close();
         }
     }
 
+    @Nullable
+    private String cacheKeyFor(@NonNull String method,
+                               @NonNull String path,
+                               @NonNull Map<String, String> parameters,
+                               @NonNull Map<String, String> headers) {
+        if (responseCache == null || !LruResponseCache.isCacheable(path)) {
+            return null;
+        }
+
+        return LruResponseCache.keyFor(method, path, parameters, headers);
+    }
+
+    @Nullable
+    private LruResponseCache.Entry addConditionalHeaders(@NonNull HttpURLConnection connection,
+                                                      @Nullable String cacheKey) {
+        if (cacheKey == null || responseCache == null) {
+            return null;
+        }
+
+        LruResponseCache.Entry cachedEntry = responseCache.get(cacheKey);
+        if (cachedEntry != null) {
+            cachedEntry.addConditionalHeaders(connection);
+        }
+
+        return cachedEntry;
+    }
+
+    /**
+     * @return True if repeating the call has no additional effect on the server
+     */
+    private static boolean isIdempotent(@NonNull String method, @NonNull String path) {
+        return "GET".equals(method) || ImojiSDKConstants.IDEMPOTENT_POST_PATHS.contains(path);
+    }
+
+    /**
+     * Servers answer a matching conditional GET with 304 Not Modified. For any other method
+     * (ex: the idempotent fetchMultiple POST) a matching If-None-Match results in a 412 instead.
+     */
+    private static boolean isNotModified(@NonNull String method, int responseCode) {
+        return responseCode == HttpURLConnection.HTTP_NOT_MODIFIED ||
+                (responseCode == HttpURLConnection.HTTP_PRECON_FAILED && !"GET".equals(method));
+    }
+
+    /**
+     * Imojis, categories and their responses are decoded with streaming TypeAdapters, the remaining
+     * responses are small enough for the tree based JsonDeserializers. Encoding is left to Gson.
+     *
+     * @param lazyImojisResponses Whether ImojisResponses decode their contents on first access
+     */
+    @NonNull
+    private static Gson createGson(boolean lazyImojisResponses) {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.artists())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.categories())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.categoriesResponses())
+                .registerTypeAdapter(GenericApiResponse.class, new GenericNetworkResponsDeserializer())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.imojis())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.imojisResponses(lazyImojisResponses))
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.imojiAttributionsResponses())
+                .registerTypeAdapterFactory(DecodingTypeAdapterFactory.attributions())
+                .registerTypeAdapter(OAuthTokenResponse.class, new OAuthTokenDeserializer())
+                .registerTypeAdapter(ImojiUploadResponse.class, new ImojiUploadResponseDeserializer())
+                .registerTypeAdapter(ErrorResponse.class, new ErrorResponseDeserializer())
+                .create();
+    }
+
+    /**
+     * Hands a response body to whichever deserializeJsonResponse hook the session uses.
+     */
+    private <T extends ApiResponse> T deserializeResponseBody(@NonNull Class<T> responseClass,
+                                                              @NonNull Reader reader) throws IOException {
+        if (stringDeserializerOverridden) {
+            return deserializeJsonResponse(responseClass, readString(reader));
+        }
+
+        return deserializeJsonResponse(responseClass, new JsonReader(reader));
+    }
+
+    /**
+     * Deserializes a fully buffered JSON response. Only called when a subclass overrides it, in
+     * which case every response body is buffered into a String first.
+     *
+     * @param responseClass The type of response to deserialize
+     * @param jsonContents  The raw JSON string
+     * @return The deserialized response
+     * @deprecated Override deserializeJsonResponse(Class, JsonReader) instead, which decodes
+     * responses as they are read from the network
+     */
+    @Deprecated
     protected  <T extends ApiResponse> T deserializeJsonResponse(@NonNull Class<T> responseClass,
                                                                  @NonNull String jsonContents) {
-        return GSON_INSTANCE.fromJson(jsonContents, responseClass);
+        return gson.fromJson(jsonContents, responseClass);
     }
 
-    private void clearOauthSettings() {
-        this.storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY);
-        this.storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY);
-        this.storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY);
+    /**
+     * Deserializes a JSON response as it is being read from the network. Subclasses supplying
+     * their own Gson instances should override this method. It is not called for sessions which
+     * override the deprecated deserializeJsonResponse(Class, String).
+     *
+     * @param responseClass The type of response to deserialize
+     * @param jsonReader    A reader positioned at the start of the response body
+     * @return The deserialized response
+     */
+    protected <T extends ApiResponse> T deserializeJsonResponse(@NonNull Class<T> responseClass,
+                                                                @NonNull JsonReader jsonReader) {
+        return gson.fromJson(jsonReader, responseClass);
+    }
+
+    @NonNull
+    private String readErrorContents(@NonNull HttpURLConnection connection,
+                                     @NonNull Charset charset) throws IOException {
+        InputStream errorStream = connection.getErrorStream();
+        if (errorStream == null) {
+            return "";
+        }
+
+        ResponseBodyInputStream inputStream = ResponseBodyInputStream.open(
+                errorStream, connection.getContentEncoding(), transferStatistics
+        );
+        PoolingByteArrayOutputStream outputStream = new PoolingByteArrayOutputStream(BYTE_ARRAY_POOL);
+        try {
+            outputStream.readFrom(inputStream);
+            drain(inputStream);
+            return outputStream.toString(charset);
+        } finally {
+            outputStream.close();
+            inputStream.close();
+        }
+    }
+
+    @NonNull
+    private static String readString(@NonNull Reader reader) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[2048];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            builder.append(buffer, 0, read);
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * @return True if a NetworkSession subclass overrides deserializeJsonResponse(Class, String)
+     */
+    private static boolean overridesStringDeserializer(@NonNull Class<?> sessionClass) {
+        for (Class<?> c = sessionClass; c != NetworkSession.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("deserializeJsonResponse", Class.class, String.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // keep looking in the superclass
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Consumes the rest of a decoded response body using a pooled scratch buffer.
+     */
+    private static void drain(@NonNull ResponseBodyInputStream inputStream) throws IOException {
+        byte[] scratch = BYTE_ARRAY_POOL.getBuf(ByteArrayPool.DEFAULT_BUFFER_SIZE);
+        try {
+            inputStream.drain(scratch);
+        } finally {
+            BYTE_ARRAY_POOL.returnBuf(scratch);
+        }
+    }
+
+    /**
+     * Reads and discards whatever is left of a response body before closing it. Connections are
+     * only returned to the keep-alive pool once their response has been fully consumed.
+     */
+    private static void drainAndClose(@NonNull InputStream inputStream) throws IOException {
+        byte[] scratch = BYTE_ARRAY_POOL.getBuf(ByteArrayPool.DEFAULT_BUFFER_SIZE);
+        try {
+            //noinspection StatementWithEmptyBody
+            while (inputStream.read(scratch) != -1) {
+            }
+        } finally {
+            BYTE_ARRAY_POOL.returnBuf(scratch);
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Gets the charset from a Content-Type header. JSON is UTF-8 unless the server says otherwise.
+     */
+    @NonNull
+    static Charset charsetForContentType(@Nullable String contentType) {
+        if (contentType != null) {
+            for (String parameter : contentType.split(";")) {
+                parameter = parameter.trim();
+                if (parameter.regionMatches(true, 0, "charset=", 0, 8)) {
+                    String name = parameter.substring(8).replace("\"", "").trim();
+                    try {
+                        return Charset.forName(name);
+                    } catch (IllegalArgumentException e) {
+                        Platform.get().logWarning(NetworkSession.class.getName(), "Unsupported response charset " + name + ", defaulting to UTF-8", null);
+                    }
+                }
+            }
+        }
+
+        return UTF_8;
     }
 
     @NonNull
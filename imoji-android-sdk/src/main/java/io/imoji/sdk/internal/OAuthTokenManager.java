@@ -0,0 +1,454 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.imoji.sdk.ImojiSDK;
+import io.imoji.sdk.StoragePolicy;
+import io.imoji.sdk.response.OAuthTokenResponse;
+
+/**
+ * Keeps the session's OAuth token in memory so that validated calls can get a usable token without
+ * touching the StoragePolicy or blocking on another thread. The persisted token is loaded once, and
+ * a new token is only requested from the server when the current one expired, was rejected, or
+ * belongs to different client credentials.
+ *
+ * When several callers need a new token at the same time only one of them performs the request,
+ * the others wait on and share its result. The new token is persisted once it has been acquired.
+ *
+ * Tokens that are in use are renewed in the background shortly before they expire (see
+ * ImojiSDK.setTokenRefreshSkew) so that foreground calls rarely have to wait on a token request.
+ *
+ * Created by agent on 10/17/26.
+ */
+class OAuthTokenManager {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * Low priority lane for renewing tokens ahead of their expiration
+     */
+    private static final ScheduledExecutorService REFRESH_EXECUTOR_SERVICE =
+            new ScheduledThreadPoolExecutor(1, new BackgroundThreadFactory("imoji-token-refresh"));
+
+    /**
+     * Immutable snapshot of the client credentials and the Authorization header derived from them
+     */
+    private static class Credentials {
+        @NonNull
+        final UUID clientId;
+
+        @NonNull
+        final String clientIdString;
+
+        @NonNull
+        final String apiToken;
+
+        @NonNull
+        final String authorizationHeader;
+
+        Credentials(@NonNull UUID clientId, @NonNull String apiToken) {
+            this.clientId = clientId;
+            this.clientIdString = clientId.toString();
+            this.apiToken = apiToken;
+            this.authorizationHeader = "Basic " +
+                    Strings.base64UrlNoPadding((clientIdString + ":" + apiToken).getBytes(UTF_8));
+        }
+
+        boolean matches(@Nullable UUID clientId, @Nullable String apiToken) {
+            return this.clientId.equals(clientId) && this.apiToken.equals(apiToken);
+        }
+    }
+
+    /**
+     * The current token along with the credentials it was issued to
+     */
+    private static class TokenState {
+        @Nullable
+        final String clientId;
+
+        @Nullable
+        final String apiToken;
+
+        @NonNull
+        final OAuthTokenResponse token;
+
+        /**
+         * When the token was acquired, or loaded from storage for persisted tokens
+         */
+        final long acquiredAt;
+
+        TokenState(@Nullable String clientId, @Nullable String apiToken, @NonNull OAuthTokenResponse token) {
+            this.clientId = clientId;
+            this.apiToken = apiToken;
+            this.token = token;
+            this.acquiredAt = System.currentTimeMillis();
+        }
+
+        boolean issuedTo(@NonNull Credentials credentials) {
+            return credentials.apiToken.equals(apiToken) && credentials.clientIdString.equals(clientId);
+        }
+    }
+
+    @NonNull
+    private final NetworkSession session;
+
+    @NonNull
+    private final StoragePolicy storagePolicy;
+
+    private final Object lock = new Object();
+
+    private volatile boolean loaded;
+
+    @Nullable
+    private volatile TokenState tokenState;
+
+    @Nullable
+    private volatile Credentials credentials;
+
+    /**
+     * Whether or not the current token was handed out to a caller. Tokens of idle sessions are
+     * not renewed in the background.
+     */
+    private volatile boolean tokenUsed;
+
+    /**
+     * The refresh currently in progress, guarded by lock
+     */
+    @Nullable
+    private FutureTask<OAuthTokenResponse> inFlightRefresh;
+
+    /**
+     * The pending background renewal of the current token, guarded by lock
+     */
+    @Nullable
+    private ScheduledFuture<?> scheduledRefresh;
+
+    OAuthTokenManager(@NonNull NetworkSession session, @NonNull StoragePolicy storagePolicy) {
+        this.session = session;
+        this.storagePolicy = storagePolicy;
+    }
+
+    /**
+     * Gets a valid access token, acquiring a new one from the server if needed.
+     *
+     * @return A valid OAuth token
+     * @throws ExecutionException   If a new token could not be acquired
+     * @throws InterruptedException If interrupted while waiting on another caller's refresh
+     */
+    @NonNull
+    OAuthTokenResponse getToken() throws ExecutionException, InterruptedException {
+        OAuthTokenResponse token = getCurrentToken();
+        if (token == null) {
+            token = refresh(null, false);
+        }
+
+        if (!tokenUsed) {
+            tokenUsed = true;
+        }
+
+        return token;
+    }
+
+    /**
+     * Discards a token that was rejected by the server and acquires a new one. If another caller
+     * already replaced the rejected token, its replacement is returned instead.
+     *
+     * @param rejectedToken The token the server rejected
+     * @return A new valid OAuth token
+     * @throws ExecutionException   If a new token could not be acquired
+     * @throws InterruptedException If interrupted while waiting on another caller's refresh
+     */
+    @NonNull
+    OAuthTokenResponse refreshRejectedToken(@NonNull OAuthTokenResponse rejectedToken)
+            throws ExecutionException, InterruptedException {
+        return refresh(rejectedToken, true);
+    }
+
+    /**
+     * @return The Authorization header for the current client credentials
+     */
+    @NonNull
+    String getCredentialsHeader() {
+        return getCredentials().authorizationHeader;
+    }
+
+    /**
+     * Lock free check of the in memory token.
+     *
+     * @return The current token if it is still valid for the current credentials, null otherwise
+     */
+    @Nullable
+    OAuthTokenResponse getCurrentToken() {
+        if (!loaded) {
+            load();
+        }
+
+        TokenState state = this.tokenState;
+        if (state == null || !state.issuedTo(getCredentials()) ||
+                state.token.getExpiration() <= System.currentTimeMillis()) {
+            return null;
+        }
+
+        return state.token;
+    }
+
+    /**
+     * Acquires a new token, sharing any refresh that is already in progress.
+     *
+     * @param staleToken The token being replaced, if any. Unless it was rejected, it is used for
+     *                   a refresh_token grant.
+     * @param rejected   True if the server rejected staleToken
+     */
+    @NonNull
+    private OAuthTokenResponse refresh(@Nullable OAuthTokenResponse staleToken, boolean rejected)
+            throws ExecutionException, InterruptedException {
+        FutureTask<OAuthTokenResponse> refreshTask;
+        boolean owner = false;
+
+        synchronized (lock) {
+            TokenState state = this.tokenState;
+            if (rejected && state != null && state.token == staleToken) {
+                state = null;
+                this.tokenState = null;
+                clearPersistedToken();
+            }
+
+            // another caller may have finished a refresh while we were waiting on the lock
+            OAuthTokenResponse currentToken = getCurrentToken();
+            if (currentToken != null && currentToken != staleToken) {
+                return currentToken;
+            }
+
+            refreshTask = inFlightRefresh;
+            if (refreshTask == null) {
+                refreshTask = new FutureTask<>(new RefreshCallable(getCredentials(), state));
+                inFlightRefresh = refreshTask;
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                refreshTask.run();
+            } finally {
+                synchronized (lock) {
+                    if (inFlightRefresh == refreshTask) {
+                        inFlightRefresh = null;
+                    }
+                }
+            }
+        }
+
+        try {
+            return Deadline.await(refreshTask);
+        } catch (ExecutionException e) {
+            // unwrap the ExecutionException thrown by the nested token request
+            if (e.getCause() instanceof ExecutionException) {
+                e = (ExecutionException) e.getCause();
+            }
+
+            if (RequestCoalescer.isOwnerOnlyFailure(e.getCause())) {
+                // the caller performing the shared refresh was cancelled or ran out of time, this
+                // one was not and refreshes again under its own deadline
+                return refresh(staleToken, rejected);
+            }
+
+            throw e;
+        }
+    }
+
+    private class RefreshCallable implements Callable<OAuthTokenResponse> {
+
+        @NonNull
+        private final Credentials credentials;
+
+        @Nullable
+        private final TokenState previousState;
+
+        RefreshCallable(@NonNull Credentials credentials, @Nullable TokenState previousState) {
+            this.credentials = credentials;
+            this.previousState = previousState;
+        }
+
+        @Override
+        public OAuthTokenResponse call() throws Exception {
+            Map<String, String> headers = new HashMap<>(2);
+            Map<String, String> body = new HashMap<>(2);
+
+            headers.put(ImojiSDKConstants.Headers.SDK_VERSION, ImojiSDKConstants.SERVER_SDK_VERSION);
+            headers.put(ImojiSDKConstants.Headers.AUTHORIZATION, credentials.authorizationHeader);
+
+            if (previousState != null && previousState.issuedTo(credentials)) {
+                // token expired, use the refresh_token grant type to get a new one
+                body.put("grant_type", "refresh_token");
+                body.put("refresh_token", previousState.token.getRefreshToken());
+            } else {
+                // get a new one all together
+                body.put("grant_type", "client_credentials");
+            }
+
+            OAuthTokenResponse token = session.makePostRequest(
+                    ImojiSDKConstants.Paths.OAUTH_REGISTER, OAuthTokenResponse.class, body, headers
+            ).executeImmediately();
+
+            if (token == null) {
+                throw new IllegalStateException("Unable to acquire an OAuth token");
+            }
+
+            TokenState state = new TokenState(credentials.clientIdString, credentials.apiToken, token);
+            synchronized (lock) {
+                tokenState = state;
+                tokenUsed = false;
+                scheduleRefresh(state);
+            }
+            persist(state);
+
+            return token;
+        }
+    }
+
+    @NonNull
+    private Credentials getCredentials() {
+        UUID clientId = ImojiSDK.getInstance().getClientId();
+        String apiToken = ImojiSDK.getInstance().getApiToken();
+
+        Credentials credentials = this.credentials;
+        if (credentials == null || !credentials.matches(clientId, apiToken)) {
+            credentials = new Credentials(clientId, apiToken);
+            this.credentials = credentials;
+        }
+
+        return credentials;
+    }
+
+    private void load() {
+        synchronized (lock) {
+            if (loaded) {
+                return;
+            }
+
+            String accessToken = storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY, null);
+            String refreshToken = storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY, null);
+
+            if (accessToken != null && refreshToken != null) {
+                tokenState = new TokenState(
+                        storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_ID_KEY, null),
+                        storagePolicy.getString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_TOKEN_KEY, null),
+                        new OAuthTokenResponse(
+                                accessToken,
+                                storagePolicy.getLong(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY, 0),
+                                refreshToken
+                        )
+                );
+                scheduleRefresh(tokenState);
+            }
+
+            loaded = true;
+        }
+    }
+
+    /**
+     * Schedules a background renewal of the token ahead of its expiration, replacing any previously
+     * scheduled renewal. Must be called while holding lock.
+     */
+    private void scheduleRefresh(@NonNull TokenState state) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+
+        // never renew earlier than halfway through the token's lifetime so that short lived tokens
+        // don't end up being refreshed back to back
+        long lifetime = Math.max(0, state.token.getExpiration() - state.acquiredAt);
+        long skew = Math.min(ImojiSDK.getInstance().getTokenRefreshSkew(), lifetime / 2);
+        long delay = Math.max(0, state.token.getExpiration() - skew - System.currentTimeMillis());
+
+        scheduledRefresh = REFRESH_EXECUTOR_SERVICE.schedule(
+                new ProactiveRefresh(this, state.token), delay, TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Renews a token in the background. Only holds a weak reference to the manager so that
+     * abandoned sessions can still be garbage collected while a renewal is pending.
+     */
+    private static class ProactiveRefresh implements Runnable {
+
+        @NonNull
+        private final WeakReference<OAuthTokenManager> managerReference;
+
+        @NonNull
+        private final OAuthTokenResponse expiringToken;
+
+        ProactiveRefresh(@NonNull OAuthTokenManager manager, @NonNull OAuthTokenResponse expiringToken) {
+            this.managerReference = new WeakReference<>(manager);
+            this.expiringToken = expiringToken;
+        }
+
+        @Override
+        public void run() {
+            OAuthTokenManager manager = managerReference.get();
+
+            // idle sessions get a new token the next time they make a call
+            if (manager == null || !manager.tokenUsed) {
+                return;
+            }
+
+            try {
+                manager.refresh(expiringToken, false);
+            } catch (ExecutionException | InterruptedException e) {
+                Platform.get().logWarning(OAuthTokenManager.class.getName(), "Unable to renew OAuth token ahead of expiration", e);
+            }
+        }
+    }
+
+    private void persist(@NonNull TokenState state) {
+        storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_ID_KEY, state.clientId);
+        storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_CLIENT_TOKEN_KEY, state.apiToken);
+        storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY, state.token.getAccessToken());
+        storagePolicy.putString(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY, state.token.getRefreshToken());
+        storagePolicy.putLong(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY, state.token.getExpiration());
+    }
+
+    private void clearPersistedToken() {
+        storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_ACCESS_TOKEN_KEY);
+        storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_REFRESH_TOKEN_KEY);
+        storagePolicy.remove(ImojiSDKConstants.PREFERENCES_OAUTH_EXPIRATION_KEY);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * The services the SDK's networking, authentication, decoding and caching code needs from the
+ * environment it runs in. Keeping them behind this class lets that code run on a plain JVM, ex: to
+ * load test or profile it, where the Android framework's native methods are unavailable.
+ *
+ * Created by agent on 10/17/26.
+ */
+public abstract class Platform {
+
+    private static final Platform INSTANCE = isAndroid() ? new AndroidPlatform() : new JvmPlatform();
+
+    /**
+     * @return The platform the SDK is running on
+     */
+    @NonNull
+    public static Platform get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Milliseconds since an arbitrary origin, monotonic and including time spent asleep
+     */
+    public abstract long elapsedRealtime();
+
+    /**
+     * Lowers the priority of the calling thread so that it does not compete with the UI
+     */
+    public abstract void setBackgroundThreadPriority();
+
+    /**
+     * Sets the priority of the calling thread
+     *
+     * @param priority A Linux nice value as used by android.os.Process, from -20 for the most
+     *                 favorable scheduling to 19 for the least favorable
+     */
+    public abstract void setThreadPriority(int priority);
+
+    /**
+     * @return True if the calling thread is the application's main thread, where network calls
+     * must not be made
+     */
+    public abstract boolean isMainThread();
+
+    public abstract void logWarning(@NonNull String tag, @NonNull String message, @Nullable Throwable throwable);
+
+    public abstract void logError(@NonNull String tag, @NonNull String message, @Nullable Throwable throwable);
+
+    /**
+     * The Android framework classes are also present on the JVM when running against Robolectric's
+     * android-all, the virtual machine tells the two apart
+     */
+    private static boolean isAndroid() {
+        return "Dalvik".equals(System.getProperty("java.vm.name"));
+    }
+}
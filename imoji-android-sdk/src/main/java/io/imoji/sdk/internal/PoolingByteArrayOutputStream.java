@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2012 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Modified for the Imoji Android SDK: adds readFrom, getBuffer and
+ * toString(Charset).
+ */
+
+package io.imoji.sdk.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * A ByteArrayOutputStream whose backing buffers are borrowed from a ByteArrayPool instead of
+ * being allocated for every request. Callers must call close() once they are done with the
+ * contents to hand the buffer back to the pool.
+ *
+ * Adapted from com.android.volley.toolbox.PoolingByteArrayOutputStream.
+ */
+public class PoolingByteArrayOutputStream extends ByteArrayOutputStream {
+
+    private final ByteArrayPool pool;
+
+    public PoolingByteArrayOutputStream(ByteArrayPool pool) {
+        this(pool, ByteArrayPool.DEFAULT_BUFFER_SIZE);
+    }
+
+    public PoolingByteArrayOutputStream(ByteArrayPool pool, int size) {
+        this.pool = pool;
+        this.buf = pool.getBuf(Math.max(size, 256));
+    }
+
+    /**
+     * Reads the remainder of the supplied stream into this buffer using a pooled scratch buffer.
+     *
+     * @param inputStream The stream to drain
+     * @return The number of bytes read
+     * @throws IOException From inputStream.read
+     */
+    public int readFrom(InputStream inputStream) throws IOException {
+        byte[] scratch = pool.getBuf(ByteArrayPool.DEFAULT_BUFFER_SIZE);
+        int total = 0;
+        try {
+            int read;
+            while ((read = inputStream.read(scratch)) != -1) {
+                write(scratch, 0, read);
+                total += read;
+            }
+        } finally {
+            pool.returnBuf(scratch);
+        }
+
+        return total;
+    }
+
+    /**
+     * @return The raw backing buffer. Only the first size() bytes are valid and the buffer must
+     * not be used once the stream has been closed.
+     */
+    public byte[] getBuffer() {
+        return buf;
+    }
+
+    /**
+     * Decodes the written contents into a String without copying them into an intermediate
+     * byte array.
+     */
+    public synchronized String toString(Charset charset) {
+        return new String(buf, 0, count, charset);
+    }
+
+    @Override
+    public void close() throws IOException {
+        pool.returnBuf(buf);
+        buf = null;
+        super.close();
+    }
+
+    @Override
+    public synchronized void write(byte[] buffer, int offset, int len) {
+        expand(len);
+        super.write(buffer, offset, len);
+    }
+
+    @Override
+    public synchronized void write(int oneByte) {
+        expand(1);
+        super.write(oneByte);
+    }
+
+    /**
+     * Ensures there is enough space in the buffer for the given number of additional bytes.
+     */
+    private void expand(int i) {
+        if (count + i <= buf.length) {
+            return;
+        }
+
+        byte[] newBuf = pool.getBuf((count + i) * 2);
+        System.arraycopy(buf, 0, newBuf, 0, count);
+        pool.returnBuf(buf);
+        buf = newBuf;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Collapses concurrent identical requests into a single call. The first caller for a given key
+ * performs the request while any callers arriving before it completes wait for and share its
+ * result. Once a request completes its key is released, so later callers trigger a new request.
+ * Waiting callers give up once their own deadline expires or they are cancelled, and perform the
+ * request again if the caller performing it was cancelled or ran out of time.
+ *
+ * Created by agent on 10/17/26.
+ */
+class RequestCoalescer {
+
+    @NonNull
+    private final ConcurrentMap<String, FutureTask<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+    /**
+     * Runs call on the current thread unless an identical request is already in flight, in which
+     * case its result is awaited instead.
+     *
+     * @param key  Identifies the request, see LruResponseCache.keyFor
+     * @param call The request to perform
+     * @return The result of the shared request
+     * @throws ExecutionException With the exception thrown by the shared request as its cause
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(@NonNull String key, @NonNull Callable<T> call)
+            throws ExecutionException, InterruptedException {
+        FutureTask<T> task = new FutureTask<>(call);
+        FutureTask<T> inFlightTask = (FutureTask<T>) inFlightRequests.putIfAbsent(key, task);
+
+        if (inFlightTask != null) {
+            try {
+                return Deadline.await(inFlightTask);
+            } catch (ExecutionException e) {
+                if (isOwnerOnlyFailure(e.getCause())) {
+                    // the task performing the shared request was cancelled or ran out of time,
+                    // this one was not and performs it again under its own deadline
+                    return execute(key, call);
+                }
+
+                throw e;
+            }
+        }
+
+        try {
+            task.run();
+        } finally {
+            inFlightRequests.remove(key, task);
+        }
+
+        return task.get();
+    }
+
+    /**
+     * @return True if cause only concerns the caller which performed a shared request, ex: it was
+     * cancelled or its deadline expired, while the current caller was not and has time left
+     */
+    static boolean isOwnerOnlyFailure(@Nullable Throwable cause) {
+        if (cause instanceof ApiCancelledException) {
+            return !CancellationToken.isCurrentCancelled();
+        }
+
+        if (cause instanceof ApiTimeoutException) {
+            return !CancellationToken.isCurrentCancelled() && !Deadline.isCurrentExpired();
+        }
+
+        return false;
+    }
+}
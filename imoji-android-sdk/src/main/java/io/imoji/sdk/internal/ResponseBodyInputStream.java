@@ -0,0 +1,264 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Wraps a raw response body and transparently decodes gzip and deflate content encodings. Both
+ * the bytes read over the network and the decoded bytes handed to the caller are counted and
+ * recorded into the session's TransferCounters once the stream is closed. Reads fail with an
+ * ApiCancelledException once the task reading the body is cancelled.
+ *
+ * Created by agent on 10/17/26.
+ */
+class ResponseBodyInputStream extends FilterInputStream {
+
+    static final String ENCODING_GZIP = "gzip";
+
+    static final String ENCODING_DEFLATE = "deflate";
+
+    private final CountingInputStream wireStream;
+
+    private final boolean compressed;
+
+    @Nullable
+    private final TransferCounters statistics;
+
+    private long decodedBytes;
+
+    private boolean closed;
+
+    private ResponseBodyInputStream(@NonNull InputStream decodedStream,
+                                    @NonNull CountingInputStream wireStream,
+                                    boolean compressed,
+                                    @Nullable TransferCounters statistics) {
+        super(decodedStream);
+        this.wireStream = wireStream;
+        this.compressed = compressed;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Opens a decoded view of a response body.
+     *
+     * @param rawStream       The response body as read off of the connection
+     * @param contentEncoding The value of the Content-Encoding response header
+     * @param statistics      Optional statistics to record the transfer into
+     * @return A stream of the decoded response body
+     * @throws IOException If the compressed stream header could not be read
+     */
+    @NonNull
+    static ResponseBodyInputStream open(@NonNull InputStream rawStream,
+                                        @Nullable String contentEncoding,
+                                        @Nullable TransferCounters statistics) throws IOException {
+        CountingInputStream wireStream = new CountingInputStream(rawStream);
+
+        if (ENCODING_GZIP.equalsIgnoreCase(contentEncoding)) {
+            return new ResponseBodyInputStream(
+                    new GZIPInputStream(wireStream, ByteArrayPool.DEFAULT_BUFFER_SIZE), wireStream, true, statistics
+            );
+        }
+
+        if (ENCODING_DEFLATE.equalsIgnoreCase(contentEncoding)) {
+            return new ResponseBodyInputStream(inflaterStream(wireStream), wireStream, true, statistics);
+        }
+
+        return new ResponseBodyInputStream(wireStream, wireStream, false, statistics);
+    }
+
+    /**
+     * HTTP deflate is meant to be zlib wrapped, but some servers send raw deflate data. Peek at
+     * the first two bytes to tell the two apart.
+     */
+    @NonNull
+    private static InputStream inflaterStream(@NonNull InputStream wireStream) throws IOException {
+        BufferedInputStream bufferedStream = new BufferedInputStream(wireStream, ByteArrayPool.DEFAULT_BUFFER_SIZE);
+        bufferedStream.mark(2);
+        int cmf = bufferedStream.read();
+        int flg = bufferedStream.read();
+        bufferedStream.reset();
+
+        boolean zlibWrapped = cmf != -1 && flg != -1 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        return new EndingInflaterInputStream(bufferedStream, new Inflater(!zlibWrapped), ByteArrayPool.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Reads and discards the remainder of the body, including any trailing bytes after the end of
+     * compressed data, so that the underlying connection can be reused.
+     *
+     * @param scratch A scratch buffer to read into
+     * @throws IOException From the underlying streams
+     */
+    void drain(@NonNull byte[] scratch) throws IOException {
+        //noinspection StatementWithEmptyBody
+        while (read(scratch, 0, scratch.length) != -1) {
+        }
+
+        if (compressed) {
+            //noinspection StatementWithEmptyBody
+            while (wireStream.read(scratch, 0, scratch.length) != -1) {
+            }
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value != -1) {
+            decodedBytes++;
+        }
+
+        return value;
+    }
+
+    @Override
+    public int read(@NonNull byte[] buffer, int offset, int count) throws IOException {
+        int read = super.read(buffer, offset, count);
+        if (read > 0) {
+            decodedBytes += read;
+        }
+
+        return read;
+    }
+
+    @Override
+    public long skip(long byteCount) throws IOException {
+        long skipped = super.skip(byteCount);
+        decodedBytes += skipped;
+
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+
+            if (statistics != null) {
+                if (compressed) {
+                    statistics.recordCompressed(wireStream.getCount(), decodedBytes);
+                } else {
+                    statistics.recordUncompressed(decodedBytes);
+                }
+            }
+        }
+
+        super.close();
+    }
+
+    /**
+     * InflaterInputStream only ends the Inflaters it creates itself. Ends the supplied one on close
+     * so its native memory is released right away rather than on finalization.
+     */
+    private static class EndingInflaterInputStream extends InflaterInputStream {
+
+        EndingInflaterInputStream(@NonNull InputStream in, @NonNull Inflater inflater, int size) {
+            super(in, inflater, size);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        CountingInputStream(@NonNull InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+
+            return value;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            checkCancelled();
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+
+            return read;
+        }
+
+        @Override
+        public long skip(long byteCount) throws IOException {
+            long skipped = super.skip(byteCount);
+            count += skipped;
+
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        /**
+         * Stops reading the body once the task is cancelled. This also covers WrappedAsyncTasks,
+         * whose cancellation only interrupts the thread, which blocking socket reads ignore.
+         */
+        private static void checkCancelled() throws ApiCancelledException {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new ApiCancelledException("Call interrupted");
+            }
+
+            CancellationToken.checkCurrent();
+        }
+    }
+}
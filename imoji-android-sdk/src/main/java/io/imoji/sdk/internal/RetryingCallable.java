@@ -0,0 +1,148 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+
+import io.imoji.sdk.RetryPolicy;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.Callable;
+
+/**
+ * Performs a single network call under a RetryPolicy. Calls are refused while the circuit breaker
+ * of the host is open. Network errors and server failures count against the breaker, and are
+ * retried after a backoff if the call is idempotent.
+ *
+ * Created by agent on 10/17/26.
+ */
+class RetryingCallable<T> implements Callable<T> {
+
+    /**
+     * Too Many Requests, not defined by HttpURLConnection
+     */
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    @NonNull
+    private final Callable<T> call;
+
+    @NonNull
+    private final RetryPolicy policy;
+
+    @NonNull
+    private final CircuitBreaker circuitBreaker;
+
+    private final boolean idempotent;
+
+    /**
+     * @param call       A single attempt of the network call, invoked once per attempt
+     * @param policy     The policy to follow
+     * @param host       The host the call is made to
+     * @param idempotent True if the call may safely be repeated
+     */
+    RetryingCallable(@NonNull Callable<T> call, @NonNull RetryPolicy policy,
+                     @NonNull String host, boolean idempotent) {
+        this.call = call;
+        this.policy = policy;
+        this.circuitBreaker = CircuitBreaker.forHost(host);
+        this.idempotent = idempotent;
+    }
+
+    @Override
+    public T call() throws Exception {
+        int maxRetries = idempotent ? policy.getMaxRetries() : 0;
+
+        for (int retry = 0; ; retry++) {
+            if (!circuitBreaker.allowRequest(policy)) {
+                throw new CircuitBreakerOpenException("Too many failed calls to " + circuitBreaker.getHost() + ", failing fast");
+            }
+
+            try {
+                T response = call.call();
+                circuitBreaker.recordSuccess();
+                return response;
+
+            } catch (Exception e) {
+                if (isServerFailure(e)) {
+                    circuitBreaker.recordFailure(policy);
+                } else if (isAbandoned(e)) {
+                    circuitBreaker.recordAbandoned();
+                    throw e;
+                } else {
+                    // the server responded, ex: with a client error
+                    circuitBreaker.recordSuccess();
+                }
+
+                if (retry >= maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+
+                long backoff = policy.getBackoff(retry);
+                Deadline deadline = Deadline.current();
+                if (deadline != null && deadline.remaining() <= backoff) {
+                    // no time left for another attempt
+                    throw e;
+                }
+
+                Platform.get().logWarning(RetryingCallable.class.getName(), "Network call failed, retrying in " + backoff + "ms", e);
+                Runnable interruptHook = CancellationToken.beginInterruptible();
+                try {
+                    Thread.sleep(backoff);
+                } finally {
+                    CancellationToken.endInterruptible(interruptHook);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return True if the exception indicates a host which is unreachable or unhealthy
+     */
+    private static boolean isServerFailure(@NonNull Exception e) {
+        if (e instanceof ApiException) {
+            return ((ApiException) e).getStatusCode() >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+        }
+
+        return e instanceof IOException && !isAbandoned(e);
+    }
+
+    /**
+     * @return True if the call did not fail on its own but was interrupted
+     */
+    private static boolean isAbandoned(@NonNull Exception e) {
+        return e instanceof InterruptedException ||
+                (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException));
+    }
+
+    private static boolean isRetryable(@NonNull Exception e) {
+        if (e instanceof ApiException) {
+            return ((ApiException) e).getStatusCode() == HTTP_TOO_MANY_REQUESTS || isServerFailure(e);
+        }
+
+        return isServerFailure(e);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+
+/**
+ * String helpers standing in for the Android framework's TextUtils and Base64, which are not
+ * available outside of a device.
+ *
+ * Created by agent on 10/17/26.
+ */
+final class Strings {
+
+    private static final char[] BASE64_URL_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private Strings() {
+    }
+
+    /**
+     * @return The string representations of the elements separated by the delimiter
+     */
+    @NonNull
+    static String join(@NonNull String delimiter, @NonNull Iterable<?> elements) {
+        StringBuilder builder = new StringBuilder();
+        boolean first = true;
+        for (Object element : elements) {
+            if (!first) {
+                builder.append(delimiter);
+            }
+
+            builder.append(element);
+            first = false;
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Equivalent to Base64.encodeToString(bytes, Base64.NO_PADDING | Base64.NO_WRAP | Base64.URL_SAFE)
+     */
+    @NonNull
+    static String base64UrlNoPadding(@NonNull byte[] bytes) {
+        StringBuilder builder = new StringBuilder((bytes.length + 2) / 3 * 4);
+
+        int i = 0;
+        for (; i + 2 < bytes.length; i += 3) {
+            int chunk = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            builder.append(BASE64_URL_ALPHABET[chunk >>> 18])
+                    .append(BASE64_URL_ALPHABET[(chunk >>> 12) & 0x3F])
+                    .append(BASE64_URL_ALPHABET[(chunk >>> 6) & 0x3F])
+                    .append(BASE64_URL_ALPHABET[chunk & 0x3F]);
+        }
+
+        int remaining = bytes.length - i;
+        if (remaining == 1) {
+            int chunk = (bytes[i] & 0xFF) << 16;
+            builder.append(BASE64_URL_ALPHABET[chunk >>> 18])
+                    .append(BASE64_URL_ALPHABET[(chunk >>> 12) & 0x3F]);
+        } else if (remaining == 2) {
+            int chunk = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8;
+            builder.append(BASE64_URL_ALPHABET[chunk >>> 18])
+                    .append(BASE64_URL_ALPHABET[(chunk >>> 12) & 0x3F])
+                    .append(BASE64_URL_ALPHABET[(chunk >>> 6) & 0x3F]);
+        }
+
+        return builder.toString();
+    }
+}
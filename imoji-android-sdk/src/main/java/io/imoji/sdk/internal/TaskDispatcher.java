@@ -0,0 +1,299 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import io.imoji.sdk.ApiTask;
+import io.imoji.sdk.ExecutorPolicy;
+import io.imoji.sdk.TaskStatistics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules ApiTasks by lane. Each lane has its own bounded queue, concurrency limit and thread
+ * priority. Whenever a thread frees up, queued work of the most urgent lane runs first, so
+ * interactive calls never wait behind queued analytics or prefetches. The lanes share a single pool
+ * of threads, either the dispatcher's own or one supplied by the application. The number of queued,
+ * running, completed and rejected tasks can be observed to monitor the SDK's load.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class TaskDispatcher implements TaskStatistics {
+
+    /**
+     * A command which is told when the dispatcher drops it rather than running it, so that the
+     * task it belongs to can fail instead of never completing
+     */
+    public interface RejectableRunnable extends Runnable {
+        void reject(@NonNull RejectedExecutionException e);
+    }
+
+    private static final ApiTask.Lane[] LANES = ApiTask.Lane.values();
+
+    @NonNull
+    private final ExecutorPolicy policy;
+
+    @NonNull
+    private final Executor executor;
+
+    /**
+     * False when running on an executor supplied by the application, whose thread priorities are
+     * left alone
+     */
+    private final boolean ownsExecutor;
+
+    @NonNull
+    private final List<ArrayDeque<Runnable>> queues = new ArrayList<>(LANES.length);
+
+    @NonNull
+    private final int[] runningCounts = new int[LANES.length];
+
+    private int runningCount;
+
+    private long completedCount;
+
+    private long rejectedCount;
+
+    @NonNull
+    private final Executor[] laneExecutors = new Executor[LANES.length];
+
+    /**
+     * @param policy   The limits to apply
+     * @param executor The executor to run tasks on, null to create a pool sized by policy
+     */
+    public TaskDispatcher(@NonNull ExecutorPolicy policy, @Nullable Executor executor) {
+        this.policy = policy;
+        this.ownsExecutor = executor == null;
+
+        if (executor == null) {
+            // never holds more than maxThreads tasks, the lane queues decide what runs next
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(
+                    policy.getMaxThreads(),
+                    policy.getMaxThreads(),
+                    policy.getKeepAlive(),
+                    TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    new BackgroundThreadFactory("imoji-api")
+            );
+            threadPool.allowCoreThreadTimeOut(true);
+            executor = threadPool;
+        }
+
+        this.executor = executor;
+
+        for (final ApiTask.Lane lane : LANES) {
+            queues.add(new ArrayDeque<Runnable>());
+            laneExecutors[lane.ordinal()] = new Executor() {
+                @Override
+                public void execute(@NonNull Runnable command) {
+                    enqueue(lane, command);
+                }
+            };
+        }
+    }
+
+    /**
+     * @return An executor running commands in lane
+     */
+    @NonNull
+    public Executor executorFor(@NonNull ApiTask.Lane lane) {
+        return laneExecutors[lane.ordinal()];
+    }
+
+    /**
+     * @return The limits applied by the dispatcher
+     */
+    @NonNull
+    public ExecutorPolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public synchronized int getQueuedCount(@NonNull ApiTask.Lane lane) {
+        return queues.get(lane.ordinal()).size();
+    }
+
+    @Override
+    public synchronized int getRunningCount(@NonNull ApiTask.Lane lane) {
+        return runningCounts[lane.ordinal()];
+    }
+
+    @Override
+    public synchronized int getRunningCount() {
+        return runningCount;
+    }
+
+    @Override
+    public synchronized long getCompletedCount() {
+        return completedCount;
+    }
+
+    @Override
+    public synchronized long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    private void enqueue(@NonNull ApiTask.Lane lane, @NonNull Runnable command) {
+        Runnable discarded = null;
+        boolean callerRuns = false;
+        synchronized (this) {
+            ArrayDeque<Runnable> queue = queues.get(lane.ordinal());
+            if (queue.size() < policy.getMaxQueuedTasks() || hasCapacity(lane)) {
+                queue.add(command);
+            } else {
+                switch (policy.getRejectionPolicy()) {
+                    case ABORT:
+                        rejectedCount++;
+                        throw new RejectedExecutionException("Too many queued " + lane + " tasks");
+                    case DISCARD_OLDEST:
+                        rejectedCount++;
+                        if (!(queue.peek() instanceof RejectableRunnable)) {
+                            // only commands which can fail their task are discarded
+                            throw new RejectedExecutionException("Too many queued " + lane + " tasks");
+                        }
+
+                        discarded = queue.poll();
+                        queue.add(command);
+                        break;
+                    case CALLER_RUNS:
+                        if (Platform.get().isMainThread()) {
+                            // running the call here would block the UI, or throw NetworkOnMainThreadException
+                            rejectedCount++;
+                            throw new RejectedExecutionException("Too many queued " + lane + " tasks");
+                        }
+
+                        callerRuns = true;
+                        break;
+                }
+            }
+        }
+
+        if (callerRuns) {
+            // back pressure, the caller waits for its own task rather than queueing more work
+            command.run();
+            return;
+        }
+
+        if (discarded != null) {
+            reject(discarded, new RejectedExecutionException("Discarded to make room for a newer " + lane + " task"));
+        }
+
+        promote();
+    }
+
+    private boolean hasCapacity(@NonNull ApiTask.Lane lane) {
+        return runningCount < policy.getMaxThreads() &&
+                runningCounts[lane.ordinal()] < lane.getMaxConcurrency();
+    }
+
+    /**
+     * Starts queued commands, most urgent lanes first, while there is capacity left
+     */
+    private void promote() {
+        List<LaneRunnable> ready = null;
+        synchronized (this) {
+            for (ApiTask.Lane lane : LANES) {
+                ArrayDeque<Runnable> queue = queues.get(lane.ordinal());
+                while (!queue.isEmpty() && hasCapacity(lane)) {
+                    if (ready == null) {
+                        ready = new ArrayList<>(2);
+                    }
+
+                    ready.add(new LaneRunnable(lane, queue.poll()));
+                    runningCounts[lane.ordinal()]++;
+                    runningCount++;
+                }
+            }
+        }
+
+        if (ready != null) {
+            for (LaneRunnable runnable : ready) {
+                try {
+                    executor.execute(runnable);
+                } catch (RejectedExecutionException e) {
+                    // an application supplied executor may be saturated or shut down
+                    synchronized (this) {
+                        runningCounts[runnable.lane.ordinal()]--;
+                        runningCount--;
+                        rejectedCount++;
+                    }
+
+                    reject(runnable.command, e);
+                }
+            }
+        }
+    }
+
+    private void finished(@NonNull ApiTask.Lane lane) {
+        synchronized (this) {
+            runningCounts[lane.ordinal()]--;
+            runningCount--;
+            completedCount++;
+        }
+
+        promote();
+    }
+
+    private static void reject(@NonNull Runnable command, @NonNull RejectedExecutionException e) {
+        if (command instanceof RejectableRunnable) {
+            ((RejectableRunnable) command).reject(e);
+        }
+    }
+
+    private class LaneRunnable implements Runnable {
+
+        @NonNull
+        private final ApiTask.Lane lane;
+
+        @NonNull
+        private final Runnable command;
+
+        LaneRunnable(@NonNull ApiTask.Lane lane, @NonNull Runnable command) {
+            this.lane = lane;
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            if (ownsExecutor) {
+                Platform.get().setThreadPriority(lane.getThreadPriority());
+            }
+
+            try {
+                command.run();
+            } finally {
+                finished(lane);
+            }
+        }
+    }
+}
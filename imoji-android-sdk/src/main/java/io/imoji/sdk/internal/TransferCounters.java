@@ -0,0 +1,75 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import io.imoji.sdk.TransferStatistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The TransferStatistics of a session, recorded into by the response streams it opens
+ *
+ * Created by agent on 10/17/26.
+ */
+class TransferCounters implements TransferStatistics {
+
+    private final AtomicLong compressedBytes = new AtomicLong();
+
+    private final AtomicLong decompressedBytes = new AtomicLong();
+
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+
+    void recordCompressed(long wireBytes, long decodedBytes) {
+        compressedBytes.addAndGet(wireBytes);
+        decompressedBytes.addAndGet(decodedBytes);
+    }
+
+    void recordUncompressed(long bytes) {
+        uncompressedBytes.addAndGet(bytes);
+    }
+
+    @Override
+    public long getCompressedBytes() {
+        return compressedBytes.get();
+    }
+
+    @Override
+    public long getDecompressedBytes() {
+        return decompressedBytes.get();
+    }
+
+    @Override
+    public long getUncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "TransferCounters{" +
+                "compressedBytes=" + compressedBytes +
+                ", decompressedBytes=" + decompressedBytes +
+                ", uncompressedBytes=" + uncompressedBytes +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.internal;
+
+import android.graphics.Bitmap;
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The body of a data upload, written directly to the request stream. Bodies of a known length are
+ * sent in fixed length streaming mode, others are sent chunked. Either way HttpURLConnection does
+ * not have to buffer a copy of the body before sending it.
+ *
+ * Created by agent on 10/17/26.
+ */
+public abstract class UploadBody {
+
+    /**
+     * @return The number of bytes written by writeTo, -1 if unknown ahead of time
+     */
+    public abstract long getContentLength();
+
+    /**
+     * Writes the body to the request stream
+     */
+    public abstract void writeTo(@NonNull OutputStream outputStream) throws IOException;
+
+    /**
+     * Creates a body sending a range of a byte array. The array is not copied and must not be
+     * modified or returned to a pool until the upload completed.
+     */
+    @NonNull
+    public static UploadBody create(@NonNull final byte[] data, final int offset, final int length) {
+        return new UploadBody() {
+            @Override
+            public long getContentLength() {
+                return length;
+            }
+
+            @Override
+            public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+                outputStream.write(data, offset, length);
+            }
+        };
+    }
+
+    /**
+     * Creates a body compressing the bitmap straight into the request stream. The compressed size
+     * is not known ahead of time so the body is sent chunked, which not every server accepts (ex:
+     * pre-signed S3 uploads require a Content-Length).
+     */
+    @NonNull
+    public static UploadBody create(@NonNull final Bitmap bitmap,
+                                    @NonNull final Bitmap.CompressFormat format,
+                                    final int quality) {
+        return new UploadBody() {
+            @Override
+            public long getContentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(@NonNull OutputStream outputStream) throws IOException {
+                if (!bitmap.compress(format, quality, outputStream)) {
+                    throw new IOException("Unable to compress bitmap to " + format);
+                }
+            }
+        };
+    }
+}
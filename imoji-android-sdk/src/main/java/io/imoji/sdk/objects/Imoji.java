@@ -32,8 +32,7 @@ import android.support.annotation.Nullable;
 import android.util.Pair;
 
 import java.io.Serializable;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -57,24 +56,43 @@ public class Imoji implements Parcelable {
         }
     }
 
+    /**
+     * Describes a single image of an Imoji. The URL is kept as a string and parsed into a Uri the
+     * first time it is requested since most callers only display one or two of the renditions.
+     */
     public static class Metadata implements Parcelable {
-        @Nullable
-        private final Integer width;
+        private final int width;
 
-        @Nullable
-        private final Integer height;
+        private final int height;
 
-        @Nullable
-        private final Integer fileSize;
+        private final int fileSize;
 
         @NonNull
-        private final Uri uri;
+        private final String url;
+
+        @Nullable
+        private volatile Uri uri;
 
         public Metadata(@NonNull Uri uri,
                         @Nullable Integer width,
                         @Nullable Integer height,
                         @Nullable Integer fileSize) {
+            this(uri.toString(),
+                    width != null ? width : 0,
+                    height != null ? height : 0,
+                    fileSize != null ? fileSize : 0
+            );
             this.uri = uri;
+        }
+
+        /**
+         * @param url      The URL of the image
+         * @param width    The width of the image, 0 if unknown
+         * @param height   The height of the image, 0 if unknown
+         * @param fileSize The download size of the image in bytes, 0 if unknown
+         */
+        public Metadata(@NonNull String url, int width, int height, int fileSize) {
+            this.url = url;
             this.width = width;
             this.height = height;
             this.fileSize = fileSize;
@@ -82,24 +100,51 @@ public class Imoji implements Parcelable {
 
         @Nullable
         public Integer getWidth() {
-            return width;
+            return width != 0 ? width : null;
         }
 
         @Nullable
         public Integer getHeight() {
-            return height;
+            return height != 0 ? height : null;
         }
 
         @Nullable
         public Integer getFileSize() {
-            return fileSize;
+            return fileSize != 0 ? fileSize : null;
         }
 
         @NonNull
         public Uri getUri() {
+            Uri uri = this.uri;
+            if (uri == null) {
+                // racing threads parse equal Uri's, keeping either one is fine
+                uri = Uri.parse(url);
+                this.uri = uri;
+            }
+
             return uri;
         }
 
+        int getWidthOrZero() {
+            return width;
+        }
+
+        int getHeightOrZero() {
+            return height;
+        }
+
+        int getFileSizeOrZero() {
+            return fileSize;
+        }
+
+        /**
+         * @return The URL of the image without parsing it into a Uri
+         */
+        @NonNull
+        public String getUrl() {
+            return url;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -107,13 +152,13 @@ public class Imoji implements Parcelable {
 
             Metadata metadata = (Metadata) o;
 
-            return uri.equals(metadata.uri);
+            return url.equals(metadata.url);
 
         }
 
         @Override
         public int hashCode() {
-            return uri.hashCode();
+            return url.hashCode();
         }
 
         /**
@@ -126,10 +171,10 @@ public class Imoji implements Parcelable {
 
         @Override
         public void writeToParcel(Parcel dest, int flags) {
-            dest.writeInt(width != null ? width : 0);
-            dest.writeInt(height != null ? height : 0);
-            dest.writeInt(fileSize != null ? fileSize : 0);
-            dest.writeString(this.uri.toString());
+            dest.writeInt(width);
+            dest.writeInt(height);
+            dest.writeInt(fileSize);
+            dest.writeString(this.url);
         }
 
         public static final Parcelable.Creator<Metadata> CREATOR
@@ -144,13 +189,10 @@ public class Imoji implements Parcelable {
         };
 
         private Metadata(Parcel in) {
-            int val = in.readInt();
-            this.width = val != 0 ? val : null;
-            val = in.readInt();
-            this.height = val != 0 ? val : null;
-            val = in.readInt();
-            this.fileSize = val != 0 ? val : null;
-            this.uri = Uri.parse(in.readString());
+            this.width = in.readInt();
+            this.height = in.readInt();
+            this.fileSize = in.readInt();
+            this.url = in.readString();
         }
     }
 
@@ -167,10 +209,11 @@ public class Imoji implements Parcelable {
     private final List<String> tags;
 
     /**
-     * A map of all the URL's of the Imoji images with RenderingOptions as the key.
+     * The metadata of all of the Imoji images indexed by RenderingOptions.getOrdinal(), null for
+     * rendering options that are not available.
      */
     @NonNull
-    private final Map<RenderingOptions, Metadata> metadataMap;
+    private final Metadata[] metadata;
 
     /**
      * The license style for the category attribution object.
@@ -217,8 +260,8 @@ public class Imoji implements Parcelable {
      */
     @Nullable
     public Uri urlForRenderingOption(RenderingOptions renderingOptions) {
-        Metadata metadata = metadataMap.get(renderingOptions);
-        return metadata != null ? metadata.uri : null;
+        Metadata metadata = getMetadata(renderingOptions);
+        return metadata != null ? metadata.getUri() : null;
     }
 
     /**
@@ -229,9 +272,9 @@ public class Imoji implements Parcelable {
      */
     @Nullable
     public Pair<Integer, Integer> imageDimensionsForRenderingOptions(RenderingOptions renderingOptions) {
-        Metadata metadata = metadataMap.get(renderingOptions);
+        Metadata metadata = getMetadata(renderingOptions);
 
-        return metadata != null && metadata.height != null && metadata.width != null ?
+        return metadata != null && metadata.height != 0 && metadata.width != 0 ?
                 new Pair<>(metadata.width, metadata.height) : null;
     }
 
@@ -242,15 +285,24 @@ public class Imoji implements Parcelable {
      * @return The download size if any for the Imoji and rendering options. Returns 0 if not found.
      */
     public int fileSizeForRenderingOptions(RenderingOptions renderingOptions) {
-        Metadata metadata = metadataMap.get(renderingOptions);
-        return metadata != null && metadata.fileSize != null ? metadata.fileSize : 0;
+        Metadata metadata = getMetadata(renderingOptions);
+        return metadata != null ? metadata.fileSize : 0;
     }
 
     /**
      * @return If the Imoji has animated GIF content available
      */
     public boolean hasAnimationCapability() {
-        return metadataMap.get(RenderingOptions.animatedGifThumbnail()) != null;
+        return metadata[RenderingOptions.animatedGifThumbnail().getOrdinal()] != null;
+    }
+
+    /**
+     * @param renderingOptions The Rendering options to use
+     * @return The metadata of the image for the rendering options, null if not available
+     */
+    @Nullable
+    public Metadata getMetadata(@Nullable RenderingOptions renderingOptions) {
+        return renderingOptions != null ? metadata[renderingOptions.getOrdinal()] : null;
     }
 
     /**
@@ -299,12 +351,37 @@ public class Imoji implements Parcelable {
                  @NonNull List<String> tags,
                  @NonNull Map<RenderingOptions, Metadata> metadataMap,
                  @NonNull LicenseStyle licenseStyle) {
+        this(identifier, tags, toMetadataArray(metadataMap), licenseStyle);
+    }
+
+    /**
+     * @param metadata The image metadata indexed by RenderingOptions.getOrdinal(), with a length of
+     *                 RenderingOptions.COUNT. The array is used as is and must not be modified after.
+     */
+    public Imoji(@NonNull String identifier,
+                 @NonNull List<String> tags,
+                 @NonNull Metadata[] metadata,
+                 @NonNull LicenseStyle licenseStyle) {
+        if (metadata.length != RenderingOptions.COUNT) {
+            throw new IllegalArgumentException("metadata must have a length of RenderingOptions.COUNT");
+        }
+
         this.identifier = identifier;
         this.tags = tags;
-        this.metadataMap = metadataMap;
+        this.metadata = metadata;
         this.licenseStyle = licenseStyle;
     }
 
+    @NonNull
+    private static Metadata[] toMetadataArray(@NonNull Map<RenderingOptions, Metadata> metadataMap) {
+        Metadata[] metadata = new Metadata[RenderingOptions.COUNT];
+        for (Map.Entry<RenderingOptions, Metadata> entry : metadataMap.entrySet()) {
+            metadata[entry.getKey().getOrdinal()] = entry.getValue();
+        }
+
+        return metadata;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -314,7 +391,7 @@ public class Imoji implements Parcelable {
 
         if (!identifier.equals(imoji.identifier)) return false;
         if (!tags.equals(imoji.tags)) return false;
-        return metadataMap.equals(imoji.metadataMap);
+        return Arrays.equals(metadata, imoji.metadata);
 
     }
 
@@ -322,7 +399,7 @@ public class Imoji implements Parcelable {
     public int hashCode() {
         int result = identifier.hashCode();
         result = 31 * result + tags.hashCode();
-        result = 31 * result + metadataMap.hashCode();
+        result = 31 * result + Arrays.hashCode(metadata);
         return result;
     }
 
@@ -340,10 +417,20 @@ public class Imoji implements Parcelable {
         dest.writeString(this.identifier);
         dest.writeStringList(this.tags);
         dest.writeInt(this.licenseStyle.getValue());
-        dest.writeInt(metadataMap.size());
-        for (Map.Entry<RenderingOptions, Metadata> entry : metadataMap.entrySet()) {
-            dest.writeParcelable(entry.getKey(), flags);
-            dest.writeParcelable(entry.getValue(), flags);
+
+        int entryCount = 0;
+        for (Metadata entry : metadata) {
+            if (entry != null) {
+                entryCount++;
+            }
+        }
+
+        dest.writeInt(entryCount);
+        for (int ordinal = 0; ordinal < metadata.length; ordinal++) {
+            if (metadata[ordinal] != null) {
+                dest.writeParcelable(RenderingOptions.fromOrdinal(ordinal), flags);
+                dest.writeParcelable(metadata[ordinal], flags);
+            }
         }
     }
 
@@ -367,17 +454,11 @@ public class Imoji implements Parcelable {
             this.licenseStyle = LicenseStyle.CommercialPrint;
         }
 
+        this.metadata = new Metadata[RenderingOptions.COUNT];
         int entryCount = in.readInt();
-        if (entryCount > 0) {
-            this.metadataMap = new HashMap<>(entryCount);
-            for (int i = 0; i < entryCount; i++) {
-                this.metadataMap.put(
-                        in.<RenderingOptions>readParcelable(RenderingOptions.class.getClassLoader()),
-                        in.<Metadata>readParcelable(Metadata.class.getClassLoader())
-                );
-            }
-        } else {
-            this.metadataMap = Collections.emptyMap();
+        for (int i = 0; i < entryCount; i++) {
+            RenderingOptions renderingOptions = in.readParcelable(RenderingOptions.class.getClassLoader());
+            this.metadata[renderingOptions.getOrdinal()] = in.readParcelable(Metadata.class.getClassLoader());
         }
     }
 }
@@ -0,0 +1,665 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.imoji.sdk.objects.json.StringInterner;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * A versioned binary format for imojis, categories, artists and ImojisResponses, compact enough
+ * for disk caches and for passing results between components. Every string is written once per
+ * stream and referenced by its index afterwards, integers are varint encoded and image URLs only
+ * store the characters which differ from the previous URL. Streams written by older versions of
+ * the SDK remain readable.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class ImojiCodec {
+
+    /**
+     * The format version written by Writer, Reader accepts this and all previous versions
+     */
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'I', 'M', 'J'};
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Bounds on the counts and lengths read from a stream, far above anything a Writer produces,
+     * so that a corrupt stream fails with an IOException rather than exhausting the heap
+     */
+    private static final int MAX_COUNT = 1 << 20;
+    private static final int MAX_STRING_LENGTH = 1 << 20;
+
+    /**
+     * Lists and strings read from a stream start at most this large and grow as their contents
+     * are actually read
+     */
+    private static final int MAX_INITIAL_CAPACITY = 64;
+
+    /**
+     * Renditions are identified by name rather than by ordinal so that the ordinals are free to
+     * change when rendering options are added
+     */
+    private static final String[] RENDITION_KEYS = new String[RenderingOptions.COUNT];
+
+    private static final Map<String, RenderingOptions> RENDITIONS_BY_KEY = new HashMap<>();
+
+    static {
+        for (int ordinal = 0; ordinal < RenderingOptions.COUNT; ordinal++) {
+            RenderingOptions renderingOptions = RenderingOptions.fromOrdinal(ordinal);
+            String key = renderingOptions.getBorderStyle().name() + '/' +
+                    renderingOptions.getImageFormat().name() + '/' +
+                    renderingOptions.getSize().name();
+
+            RENDITION_KEYS[ordinal] = key;
+            RENDITIONS_BY_KEY.put(key, renderingOptions);
+        }
+    }
+
+    private ImojiCodec() {
+    }
+
+    /**
+     * @param response The response to encode
+     * @return The response in a stream of its own
+     */
+    @NonNull
+    public static byte[] encode(@NonNull ImojisResponse response) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(BUFFER_SIZE);
+        try {
+            Writer writer = new Writer(outputStream);
+            writer.writeImojisResponse(response);
+            writer.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * @param bytes A stream created with encode(ImojisResponse)
+     * @return The decoded response
+     * @throws IOException If the stream is malformed or of a newer version
+     */
+    @NonNull
+    public static ImojisResponse decodeImojisResponse(@NonNull byte[] bytes) throws IOException {
+        return new Reader(new ByteArrayInputStream(bytes)).readImojisResponse();
+    }
+
+    /**
+     * Writes objects to an OutputStream. Strings written earlier in the stream are referenced
+     * rather than repeated, objects must therefore be read back in order by a single Reader.
+     * Output is buffered until flush or close are called.
+     */
+    public static final class Writer implements Flushable, Closeable {
+
+        @NonNull
+        private final OutputStream out;
+
+        @NonNull
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int position;
+
+        @NonNull
+        private final Map<String, Integer> stringIndexes = new HashMap<>();
+
+        @NonNull
+        private String previousUrl = "";
+
+        public Writer(@NonNull OutputStream out) throws IOException {
+            this.out = out;
+
+            writeBytes(MAGIC, 0, MAGIC.length);
+            writeVarint(VERSION);
+        }
+
+        public void writeImojisResponse(@NonNull ImojisResponse response) throws IOException {
+            writeImojiList(response.getImojis());
+            writeString(response.getFollowupSearchTerm());
+
+            List<Category> relatedCategories = response.getRelatedCategories();
+            writeVarint(nonNullCount(relatedCategories));
+            for (Category category : relatedCategories) {
+                if (category != null) {
+                    writeCategory(category);
+                }
+            }
+        }
+
+        public void writeImoji(@NonNull Imoji imoji) throws IOException {
+            writeString(imoji.getIdentifier());
+            writeStringList(imoji.getTags());
+            writeVarint(imoji.getLicenseStyle().getValue());
+
+            int renditionCount = 0;
+            for (int ordinal = 0; ordinal < RenderingOptions.COUNT; ordinal++) {
+                if (imoji.getMetadata(RenderingOptions.fromOrdinal(ordinal)) != null) {
+                    renditionCount++;
+                }
+            }
+
+            writeVarint(renditionCount);
+            for (int ordinal = 0; ordinal < RenderingOptions.COUNT; ordinal++) {
+                Imoji.Metadata metadata = imoji.getMetadata(RenderingOptions.fromOrdinal(ordinal));
+                if (metadata != null) {
+                    writeString(RENDITION_KEYS[ordinal]);
+                    writeUrl(metadata.getUrl());
+                    writeVarint(metadata.getWidthOrZero());
+                    writeVarint(metadata.getHeightOrZero());
+                    writeVarint(metadata.getFileSizeOrZero());
+                }
+            }
+        }
+
+        public void writeCategory(@NonNull Category category) throws IOException {
+            writeString(category.getIdentifier());
+            writeString(category.getTitle());
+            writeImojiList(category.getPreviewImojis());
+
+            Category.Attribution attribution = category.getAttribution();
+            writeBoolean(attribution != null);
+            if (attribution != null) {
+                writeString(attribution.getIdentifier());
+                writeBoolean(attribution.getArtist() != null);
+                if (attribution.getArtist() != null) {
+                    writeArtist(attribution.getArtist());
+                }
+
+                Uri uri = attribution.getUri();
+                writeString(uri != null ? uri.toString() : null);
+
+                Category.URLCategory urlCategory = attribution.getUrlCategory();
+                writeString(urlCategory != null ? urlCategory.name() : null);
+                writeStringList(attribution.getRelatedTags());
+                writeVarint(attribution.getLicenseStyle().getValue());
+            }
+        }
+
+        public void writeArtist(@NonNull Artist artist) throws IOException {
+            writeString(artist.getIdentifier());
+            writeString(artist.getName());
+            writeString(artist.getDescription());
+
+            Imoji profileImoji = artist.getProfileImoji();
+            writeBoolean(profileImoji != null);
+            if (profileImoji != null) {
+                writeImoji(profileImoji);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            out.close();
+        }
+
+        private void writeImojiList(@NonNull List<Imoji> imojis) throws IOException {
+            writeVarint(nonNullCount(imojis));
+            for (Imoji imoji : imojis) {
+                if (imoji != null) {
+                    writeImoji(imoji);
+                }
+            }
+        }
+
+        private void writeStringList(@NonNull List<String> strings) throws IOException {
+            writeVarint(strings.size());
+            for (String string : strings) {
+                writeString(string);
+            }
+        }
+
+        /**
+         * Writes 0 for null, index << 1 | 1 for a string already written, otherwise
+         * (length + 1) << 1 followed by the UTF-8 bytes of the string.
+         */
+        private void writeString(@Nullable String string) throws IOException {
+            if (string == null) {
+                writeVarint(0);
+                return;
+            }
+
+            Integer index = stringIndexes.get(string);
+            if (index != null) {
+                writeVarint(index << 1 | 1);
+                return;
+            }
+
+            stringIndexes.put(string, stringIndexes.size());
+
+            byte[] bytes = string.getBytes(UTF_8);
+            writeVarint((bytes.length + 1) << 1);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        /**
+         * Writes the length of the prefix shared with the previous URL followed by the remaining
+         * characters. URLs are not added to the string table since they rarely repeat.
+         */
+        private void writeUrl(@NonNull String url) throws IOException {
+            int maxPrefix = Math.min(url.length(), previousUrl.length());
+            int prefix = 0;
+            while (prefix < maxPrefix && url.charAt(prefix) == previousUrl.charAt(prefix)) {
+                prefix++;
+            }
+
+            // never split a surrogate pair
+            if (prefix > 0 && Character.isHighSurrogate(url.charAt(prefix - 1))) {
+                prefix--;
+            }
+
+            byte[] suffix = url.substring(prefix).getBytes(UTF_8);
+            writeVarint(prefix);
+            writeVarint(suffix.length);
+            writeBytes(suffix, 0, suffix.length);
+
+            previousUrl = url;
+        }
+
+        private void writeBoolean(boolean value) throws IOException {
+            writeByte(value ? 1 : 0);
+        }
+
+        private void writeVarint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            writeByte(value);
+        }
+
+        private void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeBytes(@NonNull byte[] bytes, int offset, int length) throws IOException {
+            if (length > buffer.length - position) {
+                out.write(buffer, 0, position);
+                position = 0;
+
+                if (length > buffer.length) {
+                    out.write(bytes, offset, length);
+                    return;
+                }
+            }
+
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        private static int nonNullCount(@NonNull List<?> list) {
+            int count = 0;
+            for (Object element : list) {
+                if (element != null) {
+                    count++;
+                }
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Reads objects written by a Writer, in the order they were written. Input is read ahead in
+     * blocks, the stream should not be shared with other readers.
+     */
+    public static final class Reader implements Closeable {
+
+        @NonNull
+        private final InputStream in;
+
+        @NonNull
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int position;
+
+        private int limit;
+
+        @NonNull
+        private final List<String> strings = new ArrayList<>();
+
+        @NonNull
+        private String previousUrl = "";
+
+        private final int version;
+
+        /**
+         * @param in A stream created by a Writer
+         * @throws IOException If the stream was not written by a Writer, or by a newer version
+         */
+        public Reader(@NonNull InputStream in) throws IOException {
+            this.in = in;
+
+            for (byte magic : MAGIC) {
+                if (readByte() != magic) {
+                    throw new IOException("Not an ImojiCodec stream");
+                }
+            }
+
+            version = readVarint();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported ImojiCodec version " + version);
+            }
+        }
+
+        /**
+         * @return The version the stream was written with
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        @NonNull
+        public ImojisResponse readImojisResponse() throws IOException {
+            List<Imoji> imojis = readImojiList();
+            String followupSearchTerm = readString();
+
+            int categoryCount = readCount();
+            List<Category> relatedCategories = new ArrayList<>(Math.min(categoryCount, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < categoryCount; i++) {
+                relatedCategories.add(readCategory());
+            }
+
+            return new ImojisResponse(imojis, followupSearchTerm, relatedCategories);
+        }
+
+        @NonNull
+        public Imoji readImoji() throws IOException {
+            String identifier = readNonNullString();
+            List<String> tags = readStringList();
+            Imoji.LicenseStyle licenseStyle = readLicenseStyle();
+
+            Imoji.Metadata[] metadata = new Imoji.Metadata[RenderingOptions.COUNT];
+            int renditionCount = readCount();
+            for (int i = 0; i < renditionCount; i++) {
+                String key = readNonNullString();
+                String url = readUrl();
+                int width = readVarint();
+                int height = readVarint();
+                int fileSize = readVarint();
+
+                // skip renditions removed since the stream was written
+                RenderingOptions renderingOptions = RENDITIONS_BY_KEY.get(key);
+                if (renderingOptions != null) {
+                    metadata[renderingOptions.getOrdinal()] = new Imoji.Metadata(url, width, height, fileSize);
+                }
+            }
+
+            return new Imoji(identifier, tags, metadata, licenseStyle);
+        }
+
+        @NonNull
+        public Category readCategory() throws IOException {
+            String identifier = readNonNullString();
+            String title = readNonNullString();
+            List<Imoji> previewImojis = readImojiList();
+
+            Category.Attribution attribution = null;
+            if (readBoolean()) {
+                String attributionId = readString();
+                Artist artist = readBoolean() ? readArtist() : null;
+
+                String uri = readString();
+                String urlCategory = readString();
+                List<String> relatedTags = readStringList();
+                Imoji.LicenseStyle licenseStyle = readLicenseStyle();
+
+                attribution = new Category.Attribution(
+                        attributionId,
+                        artist,
+                        uri != null ? Uri.parse(uri) : null,
+                        relatedTags,
+                        urlCategory(urlCategory),
+                        licenseStyle
+                );
+            }
+
+            return new Category(identifier, title, previewImojis, attribution);
+        }
+
+        @NonNull
+        public Artist readArtist() throws IOException {
+            String identifier = readString();
+            String name = readString();
+            String description = readString();
+            Imoji profileImoji = readBoolean() ? readImoji() : null;
+
+            return new Artist(identifier, name, description, profileImoji);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        @NonNull
+        private List<Imoji> readImojiList() throws IOException {
+            int count = readCount();
+            List<Imoji> imojis = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < count; i++) {
+                imojis.add(readImoji());
+            }
+
+            return imojis;
+        }
+
+        @NonNull
+        private List<String> readStringList() throws IOException {
+            int count = readCount();
+            if (count == 0) {
+                return Collections.emptyList();
+            }
+
+            List<String> strings = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+            for (int i = 0; i < count; i++) {
+                strings.add(StringInterner.getInstance().intern(readString()));
+            }
+
+            return strings;
+        }
+
+        @NonNull
+        private Imoji.LicenseStyle readLicenseStyle() throws IOException {
+            return readVarint() == Imoji.LicenseStyle.CommercialPrint.getValue() ?
+                    Imoji.LicenseStyle.CommercialPrint : Imoji.LicenseStyle.NonCommercial;
+        }
+
+        @Nullable
+        private static Category.URLCategory urlCategory(@Nullable String name) {
+            if (name == null) {
+                return null;
+            }
+
+            try {
+                return Category.URLCategory.valueOf(name);
+            } catch (IllegalArgumentException e) {
+                // a category removed since the stream was written
+                return Category.URLCategory.Website;
+            }
+        }
+
+        @NonNull
+        private String readNonNullString() throws IOException {
+            String string = readString();
+            if (string == null) {
+                throw new IOException("Unexpected null string");
+            }
+
+            return string;
+        }
+
+        @Nullable
+        private String readString() throws IOException {
+            int value = readVarint();
+            if (value == 0) {
+                return null;
+            }
+
+            if ((value & 1) != 0) {
+                int index = value >>> 1;
+                if (index >= strings.size()) {
+                    throw new IOException("Invalid string reference " + index);
+                }
+
+                return strings.get(index);
+            }
+
+            String string = readUtf8((value >>> 1) - 1);
+            strings.add(string);
+
+            return string;
+        }
+
+        @NonNull
+        private String readUrl() throws IOException {
+            int prefix = readVarint();
+            if (prefix < 0 || prefix > previousUrl.length()) {
+                throw new IOException("Invalid URL prefix " + prefix);
+            }
+
+            String url = previousUrl.substring(0, prefix) + readUtf8(readVarint());
+            previousUrl = url;
+
+            return url;
+        }
+
+        @NonNull
+        private String readUtf8(int length) throws IOException {
+            if (length < 0 || length > MAX_STRING_LENGTH) {
+                throw new IOException("Invalid string length " + length);
+            }
+
+            if (length <= limit - position) {
+                String string = new String(buffer, position, length, UTF_8);
+                position += length;
+                return string;
+            }
+
+            // grow the array as bytes arrive, a truncated stream claiming a long string fails before
+            // the whole length is allocated
+            int copied = limit - position;
+            byte[] bytes = new byte[Math.max(copied, Math.min(length, BUFFER_SIZE))];
+            System.arraycopy(buffer, position, bytes, 0, copied);
+            position = limit;
+
+            while (copied < length) {
+                if (copied == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+                }
+
+                int read = in.read(bytes, copied, bytes.length - copied);
+                if (read < 0) {
+                    throw new EOFException();
+                }
+
+                copied += read;
+            }
+
+            return new String(bytes, 0, length, UTF_8);
+        }
+
+        /**
+         * @return The number of elements of a list
+         */
+        private int readCount() throws IOException {
+            int count = readVarint();
+            if (count < 0 || count > MAX_COUNT) {
+                throw new IOException("Invalid count " + count);
+            }
+
+            return count;
+        }
+
+        private boolean readBoolean() throws IOException {
+            return readByte() != 0;
+        }
+
+        private int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("Malformed varint");
+        }
+
+        private byte readByte() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+
+                if (limit <= 0) {
+                    limit = 0;
+                    throw new EOFException();
+                }
+            }
+
+            return buffer[position++];
+        }
+    }
+}
@@ -28,7 +28,9 @@ import android.os.Parcelable;
 import android.support.annotation.NonNull;
 
 /**
- * Represents various parameters to display Imoji sticker content
+ * Represents various parameters to display Imoji sticker content. There is a single canonical
+ * instance for each combination of parameters, obtained with RenderingOptions.get, each with a
+ * unique ordinal that can be used to index arrays.
  */
 public class RenderingOptions implements Parcelable {
 
@@ -89,10 +91,86 @@ public class RenderingOptions implements Parcelable {
     @NonNull
     private final Size size;
 
+    private final int ordinal;
+
+    private static final BorderStyle[] BORDER_STYLES = BorderStyle.values();
+
+    private static final ImageFormat[] IMAGE_FORMATS = ImageFormat.values();
+
+    private static final Size[] SIZES = Size.values();
+
+    /**
+     * The number of distinct rendering options, ordinals range from 0 to COUNT - 1
+     */
+    public static final int COUNT = BORDER_STYLES.length * IMAGE_FORMATS.length * SIZES.length;
+
+    private static final RenderingOptions[] CANONICAL_OPTIONS = new RenderingOptions[COUNT];
+
+    static {
+        for (BorderStyle borderStyle : BORDER_STYLES) {
+            for (ImageFormat imageFormat : IMAGE_FORMATS) {
+                for (Size size : SIZES) {
+                    RenderingOptions renderingOptions = new RenderingOptions(borderStyle, imageFormat, size);
+                    CANONICAL_OPTIONS[renderingOptions.ordinal] = renderingOptions;
+                }
+            }
+        }
+    }
+
+    private static final RenderingOptions BORDERED_PNG_THUMBNAIL =
+            get(BorderStyle.Sticker, ImageFormat.Png, Size.Thumbnail);
+
+    private static final RenderingOptions BORDERED_PNG_FULL_SIZE =
+            get(BorderStyle.Sticker, ImageFormat.Png, Size.FullResolution);
+
+    private static final RenderingOptions BORDERED_WEBP_THUMBNAIL =
+            get(BorderStyle.Sticker, ImageFormat.WebP, Size.Thumbnail);
+
+    private static final RenderingOptions BORDERED_WEBP_FULL_SIZE =
+            get(BorderStyle.Sticker, ImageFormat.WebP, Size.FullResolution);
+
+    private static final RenderingOptions ANIMATED_GIF_THUMBNAIL =
+            get(BorderStyle.None, ImageFormat.AnimatedGif, Size.Thumbnail);
+
+    private static final RenderingOptions ANIMATED_GIF_FULL_SIZE =
+            get(BorderStyle.None, ImageFormat.AnimatedGif, Size.FullResolution);
+
+    /**
+     * Prefer RenderingOptions.get, which returns the canonical instance rather than allocating
+     */
     public RenderingOptions(@NonNull BorderStyle borderStyle, @NonNull ImageFormat imageFormat, @NonNull Size size) {
         this.borderStyle = borderStyle;
         this.imageFormat = imageFormat;
         this.size = size;
+        this.ordinal = ordinalOf(borderStyle, imageFormat, size);
+    }
+
+    /**
+     * @return The canonical RenderingOptions instance for the parameters
+     */
+    @NonNull
+    public static RenderingOptions get(@NonNull BorderStyle borderStyle, @NonNull ImageFormat imageFormat, @NonNull Size size) {
+        return CANONICAL_OPTIONS[ordinalOf(borderStyle, imageFormat, size)];
+    }
+
+    /**
+     * @param ordinal A value between 0 and COUNT - 1
+     * @return The canonical RenderingOptions instance with the ordinal
+     */
+    @NonNull
+    public static RenderingOptions fromOrdinal(int ordinal) {
+        return CANONICAL_OPTIONS[ordinal];
+    }
+
+    /**
+     * @return A unique index between 0 and COUNT - 1 for this combination of parameters
+     */
+    public int getOrdinal() {
+        return ordinal;
+    }
+
+    private static int ordinalOf(@NonNull BorderStyle borderStyle, @NonNull ImageFormat imageFormat, @NonNull Size size) {
+        return (borderStyle.ordinal() * IMAGE_FORMATS.length + imageFormat.ordinal()) * SIZES.length + size.ordinal();
     }
 
     @NonNull
@@ -112,32 +190,32 @@ public class RenderingOptions implements Parcelable {
 
     @NonNull
     public static RenderingOptions borderedPngThumbnail() {
-        return new RenderingOptions(BorderStyle.Sticker, ImageFormat.Png, Size.Thumbnail);
+        return BORDERED_PNG_THUMBNAIL;
     }
 
     @NonNull
     public static RenderingOptions borderedPngFullSize() {
-        return new RenderingOptions(BorderStyle.Sticker, ImageFormat.Png, Size.FullResolution);
+        return BORDERED_PNG_FULL_SIZE;
     }
 
     @NonNull
     public static RenderingOptions borderedWebThumbnail() {
-        return new RenderingOptions(BorderStyle.Sticker, ImageFormat.WebP, Size.Thumbnail);
+        return BORDERED_WEBP_THUMBNAIL;
     }
 
     @NonNull
     public static RenderingOptions borderedWebFullSize() {
-        return new RenderingOptions(BorderStyle.Sticker, ImageFormat.WebP, Size.FullResolution);
+        return BORDERED_WEBP_FULL_SIZE;
     }
 
     @NonNull
     public static RenderingOptions animatedGifThumbnail() {
-        return new RenderingOptions(BorderStyle.None, ImageFormat.AnimatedGif, Size.Thumbnail);
+        return ANIMATED_GIF_THUMBNAIL;
     }
 
     @NonNull
     public static RenderingOptions animatedGifFullSize() {
-        return new RenderingOptions(BorderStyle.None, ImageFormat.AnimatedGif, Size.FullResolution);
+        return ANIMATED_GIF_FULL_SIZE;
     }
 
 
@@ -148,18 +226,13 @@ public class RenderingOptions implements Parcelable {
 
         RenderingOptions that = (RenderingOptions) o;
 
-        if (borderStyle != that.borderStyle) return false;
-        if (imageFormat != that.imageFormat) return false;
-        return size == that.size;
+        return ordinal == that.ordinal;
 
     }
 
     @Override
     public int hashCode() {
-        int result = borderStyle.hashCode();
-        result = 31 * result + imageFormat.hashCode();
-        result = 31 * result + size.hashCode();
-        return result;
+        return ordinal;
     }
 
     /**
@@ -181,17 +254,11 @@ public class RenderingOptions implements Parcelable {
     public static final Parcelable.Creator<RenderingOptions> CREATOR
             = new Parcelable.Creator<RenderingOptions>() {
         public RenderingOptions createFromParcel(Parcel in) {
-            return new RenderingOptions(in);
+            return get(BORDER_STYLES[in.readInt()], IMAGE_FORMATS[in.readInt()], SIZES[in.readInt()]);
         }
 
         public RenderingOptions[] newArray(int size) {
             return new RenderingOptions[size];
         }
     };
-
-    private RenderingOptions(Parcel in) {
-        this.borderStyle = BorderStyle.values()[in.readInt()];
-        this.imageFormat = ImageFormat.values()[in.readInt()];
-        this.size = Size.values()[in.readInt()];
-    }
 }
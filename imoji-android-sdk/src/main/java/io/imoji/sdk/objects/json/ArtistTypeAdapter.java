@@ -0,0 +1,109 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import io.imoji.sdk.objects.Artist;
+
+/**
+ * Decodes an Artist straight from the token stream. The artist's profile imoji is flattened into
+ * the same object as the artist's own fields.
+ *
+ * Created by agent on 10/17/26.
+ */
+class ArtistTypeAdapter extends TypeAdapter<Artist> {
+
+    @Override
+    public void write(JsonWriter out, Artist value) throws IOException {
+        throw new UnsupportedOperationException("ArtistTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public Artist read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        Fields fields = new Fields();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!fields.read(in.nextName(), in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return fields.build();
+    }
+
+    /**
+     * The fields of an Artist, including the ones of its profile imoji
+     */
+    static class Fields {
+
+        @Nullable
+        private String name;
+
+        @Nullable
+        private String description;
+
+        @NonNull
+        final ImojiTypeAdapter.Fields profileImoji = new ImojiTypeAdapter.Fields();
+
+        boolean read(@NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "name":
+                    this.name = JsonReaders.nextStringOrNull(in);
+                    return true;
+                case "description":
+                    this.description = JsonReaders.nextStringOrNull(in);
+                    return true;
+                default:
+                    // the artist's id is the id of its profile imoji
+                    return profileImoji.read(name, in);
+            }
+        }
+
+        /**
+         * @return The artist, null if the object has no artist id
+         */
+        @Nullable
+        Artist build() {
+            if (profileImoji.id == null) {
+                return null;
+            }
+
+            return new Artist(profileImoji.id, name, description, profileImoji.build());
+        }
+    }
+}
@@ -86,7 +86,7 @@ public class AttributionDeserializer implements JsonDeserializer<Category.Attrib
         if (relatedTagsArray != null && relatedTagsArray.size() > 0) {
             relatedTags = new ArrayList<>(relatedTagsArray.size());
             for (JsonElement tag : relatedTagsArray) {
-                relatedTags.add(tag.getAsString());
+                relatedTags.add(StringInterner.getInstance().intern(tag.getAsString()));
             }
         } else {
             relatedTags = Collections.emptyList();
@@ -0,0 +1,102 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import io.imoji.sdk.objects.Category;
+
+/**
+ * Decodes a Category.Attribution straight from the token stream. The attribution, its artist and
+ * the artist's profile imoji all share a single object, which is read in one pass.
+ *
+ * Created by agent on 10/17/26.
+ */
+class AttributionTypeAdapter extends TypeAdapter<Category.Attribution> {
+
+    @Override
+    public void write(JsonWriter out, Category.Attribution value) throws IOException {
+        throw new UnsupportedOperationException("AttributionTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public Category.Attribution read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        String attributionId = null;
+        String packUrl = null;
+        String packUrlCategory = null;
+        List<String> relatedTags = Collections.emptyList();
+        ArtistTypeAdapter.Fields artist = new ArtistTypeAdapter.Fields();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "packId":
+                    attributionId = JsonReaders.nextStringOrNull(in);
+                    break;
+                case "packURL":
+                    packUrl = JsonReaders.nextStringOrNull(in);
+                    break;
+                case "packURLCategory":
+                    packUrlCategory = JsonReaders.nextStringOrNull(in);
+                    break;
+                case "relatedTags":
+                    relatedTags = JsonReaders.nextStringList(in);
+                    break;
+                default:
+                    if (!artist.read(name, in)) {
+                        in.skipValue();
+                    }
+                    break;
+            }
+        }
+        in.endObject();
+
+        Uri uri = packUrl != null ? Uri.parse(packUrl) : null;
+        Category.URLCategory urlCategory = packUrlCategory != null ?
+                JsonReaders.URL_CATEGORY_MAP.get(packUrlCategory) : null;
+
+        if (urlCategory == null && uri != null) {
+            urlCategory = Category.URLCategory.Website;
+        }
+
+        // the license style applies to both the attribution and the artist's profile imoji
+        return new Category.Attribution(attributionId, artist.build(), uri, relatedTags, urlCategory,
+                JsonReaders.licenseStyle(artist.profileImoji.licenseStyle));
+    }
+}
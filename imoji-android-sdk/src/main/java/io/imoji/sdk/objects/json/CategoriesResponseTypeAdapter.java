@@ -0,0 +1,81 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.response.CategoriesResponse;
+
+/**
+ * Decodes a CategoriesResponse straight from the token stream
+ *
+ * Created by agent on 10/17/26.
+ */
+class CategoriesResponseTypeAdapter extends TypeAdapter<CategoriesResponse> {
+
+    private final CategoryTypeAdapter categoryTypeAdapter = new CategoryTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, CategoriesResponse value) throws IOException {
+        throw new UnsupportedOperationException("CategoriesResponseTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public CategoriesResponse read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        List<Category> categories = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("categories".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                in.beginArray();
+                while (in.hasNext()) {
+                    if (categories == null) {
+                        categories = new ArrayList<>();
+                    }
+
+                    categories.add(categoryTypeAdapter.read(in));
+                }
+                in.endArray();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new CategoriesResponse(categories != null ? categories : Collections.<Category>emptyList());
+    }
+}
@@ -67,7 +67,7 @@ public class CategoryDeserializer implements JsonDeserializer<Category> {
         JsonObject root = json.getAsJsonObject();
 
         String identifier = root.get("searchText").getAsString();
-        String title = root.get("title").getAsString();
+        String title = StringInterner.getInstance().intern(root.get("title").getAsString());
 
         JsonArray imojisArray = root.get("imojis").getAsJsonArray();
 
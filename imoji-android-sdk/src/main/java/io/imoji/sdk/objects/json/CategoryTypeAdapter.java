@@ -0,0 +1,115 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.objects.Imoji;
+
+/**
+ * Decodes a Category straight from the token stream
+ *
+ * Created by agent on 10/17/26.
+ */
+class CategoryTypeAdapter extends TypeAdapter<Category> {
+
+    private final ImojiTypeAdapter imojiTypeAdapter = new ImojiTypeAdapter();
+
+    private final AttributionTypeAdapter attributionTypeAdapter = new AttributionTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, Category value) throws IOException {
+        throw new UnsupportedOperationException("CategoryTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public Category read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        String identifier = null;
+        String title = null;
+        Category.Attribution attribution = null;
+        List<Imoji> previewImojis = Collections.emptyList();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "searchText":
+                    identifier = JsonReaders.nextStringOrNull(in);
+                    break;
+                case "title":
+                    title = StringInterner.getInstance().intern(JsonReaders.nextStringOrNull(in));
+                    break;
+                case "artist":
+                    attribution = attributionTypeAdapter.read(in);
+                    break;
+                case "imojis":
+                    previewImojis = readImojis(in);
+                    break;
+                default:
+                    in.skipValue();
+                    break;
+            }
+        }
+        in.endObject();
+
+        if (identifier == null || title == null) {
+            throw new JsonParseException("Category is missing its searchText or title");
+        }
+
+        return new Category(identifier, title, previewImojis, attribution);
+    }
+
+    private List<Imoji> readImojis(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return Collections.emptyList();
+        }
+
+        List<Imoji> imojis = null;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (imojis == null) {
+                imojis = new ArrayList<>();
+            }
+
+            imojis.add(imojiTypeAdapter.read(in));
+        }
+        in.endArray();
+
+        return imojis != null ? imojis : Collections.<Imoji>emptyList();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import io.imoji.sdk.ImojiResultListener;
+import io.imoji.sdk.objects.Artist;
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.response.CategoriesResponse;
+import io.imoji.sdk.response.ImojiAttributionsResponse;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * Registers one of the SDK's streaming decoders, ex: imojis(), with a Gson instance. Decoding goes
+ * through the streaming adapter while encoding is left to the adapter Gson would have used
+ * otherwise, so the models can still be serialized with the same Gson instance. The decoders
+ * themselves are only reachable through these factories.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class DecodingTypeAdapterFactory<T> implements TypeAdapterFactory {
+
+    @NonNull
+    private final Class<T> type;
+
+    @NonNull
+    private final TypeAdapter<T> decoder;
+
+    private DecodingTypeAdapterFactory(@NonNull Class<T> type, @NonNull TypeAdapter<T> decoder) {
+        this.type = type;
+        this.decoder = decoder;
+    }
+
+    /**
+     * @param type    The class decoded by decoder, subclasses are left to Gson
+     * @param decoder The adapter reading instances of type
+     * @return A factory to register with GsonBuilder.registerTypeAdapterFactory
+     */
+    @NonNull
+    public static <T> TypeAdapterFactory create(@NonNull Class<T> type, @NonNull TypeAdapter<T> decoder) {
+        return new DecodingTypeAdapterFactory<>(type, decoder);
+    }
+
+    @NonNull
+    public static TypeAdapterFactory artists() {
+        return create(Artist.class, new ArtistTypeAdapter());
+    }
+
+    @NonNull
+    public static TypeAdapterFactory attributions() {
+        return create(Category.Attribution.class, new AttributionTypeAdapter());
+    }
+
+    @NonNull
+    public static TypeAdapterFactory categories() {
+        return create(Category.class, new CategoryTypeAdapter());
+    }
+
+    @NonNull
+    public static TypeAdapterFactory categoriesResponses() {
+        return create(CategoriesResponse.class, new CategoriesResponseTypeAdapter());
+    }
+
+    @NonNull
+    public static TypeAdapterFactory imojis() {
+        return create(Imoji.class, new ImojiTypeAdapter());
+    }
+
+    @NonNull
+    public static TypeAdapterFactory imojiAttributionsResponses() {
+        return create(ImojiAttributionsResponse.class, new ImojiAttributionsResponseTypeAdapter());
+    }
+
+    /**
+     * @param lazy Whether to decode the imojis and related categories on first access
+     */
+    @NonNull
+    public static TypeAdapterFactory imojisResponses(boolean lazy) {
+        return imojisResponses(lazy, null);
+    }
+
+    /**
+     * @param lazy     Whether to decode the related categories on first access, imojis are always
+     *                 decoded immediately when there is a listener
+     * @param listener Notified of each imoji as soon as it has been decoded
+     */
+    @NonNull
+    public static TypeAdapterFactory imojisResponses(boolean lazy, @Nullable ImojiResultListener listener) {
+        return create(ImojisResponse.class, new ImojisResponseTypeAdapter(lazy, listener));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <R> TypeAdapter<R> create(Gson gson, TypeToken<R> typeToken) {
+        if (typeToken.getRawType() != type) {
+            return null;
+        }
+
+        final TypeAdapter<R> encoder = gson.getDelegateAdapter(this, typeToken);
+        final TypeAdapter<R> decoder = (TypeAdapter<R>) this.decoder;
+
+        return new TypeAdapter<R>() {
+            @Override
+            public void write(JsonWriter out, R value) throws IOException {
+                encoder.write(out, value);
+            }
+
+            @Override
+            public R read(JsonReader in) throws IOException {
+                return decoder.read(in);
+            }
+        };
+    }
+}
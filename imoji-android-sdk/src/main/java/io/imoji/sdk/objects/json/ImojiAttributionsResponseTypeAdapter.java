@@ -0,0 +1,77 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.response.ImojiAttributionsResponse;
+
+/**
+ * Decodes an ImojiAttributionsResponse straight from the token stream
+ *
+ * Created by agent on 10/17/26.
+ */
+class ImojiAttributionsResponseTypeAdapter extends TypeAdapter<ImojiAttributionsResponse> {
+
+    private final AttributionTypeAdapter attributionTypeAdapter = new AttributionTypeAdapter();
+
+    @Override
+    public void write(JsonWriter out, ImojiAttributionsResponse value) throws IOException {
+        throw new UnsupportedOperationException("ImojiAttributionsResponseTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public ImojiAttributionsResponse read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        Map<String, Category.Attribution> attributionMap = new HashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("attribution".equals(in.nextName()) && in.peek() == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    String imojiId = in.nextName();
+                    attributionMap.put(imojiId, attributionTypeAdapter.read(in));
+                }
+                in.endObject();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ImojiAttributionsResponse(attributionMap);
+    }
+}
@@ -23,7 +23,6 @@
 
 package io.imoji.sdk.objects.json;
 
-import android.net.Uri;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonDeserializationContext;
@@ -37,7 +36,6 @@ import io.imoji.sdk.objects.Imoji;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -67,7 +65,7 @@ public class ImojiDeserializer implements JsonDeserializer<Imoji> {
         if (tagsArray != null && tagsArray.size() > 0) {
             tags = new ArrayList<>(tagsArray.size());
             for (JsonElement tag : tagsArray) {
-                tags.add(tag.getAsString());
+                tags.add(StringInterner.getInstance().intern(tag.getAsString()));
             }
         } else {
             tags = Collections.emptyList();
@@ -81,108 +79,66 @@ public class ImojiDeserializer implements JsonDeserializer<Imoji> {
             }
         }
 
-        Map<RenderingOptions, Imoji.Metadata> metadataMap = new HashMap<>();
+        Imoji.Metadata[] metadata = new Imoji.Metadata[RenderingOptions.COUNT];
 
         JsonObject images = root.get("images").getAsJsonObject();
 
-        for (RenderingOptions.BorderStyle borderStyle : RenderingOptions.BorderStyle.values()) {
-            for (RenderingOptions.ImageFormat imageFormat : RenderingOptions.ImageFormat.values()) {
-                for (RenderingOptions.Size size : RenderingOptions.Size.values()) {
-                    JsonObject subDocument;
-
-                    switch (borderStyle) {
-                        case Sticker:
-                            subDocument = images.getAsJsonObject("bordered");
-                            break;
-                        case None:
-                            if (imageFormat == RenderingOptions.ImageFormat.AnimatedGif || imageFormat == RenderingOptions.ImageFormat.AnimatedWebp) {
-                                subDocument = images.getAsJsonObject("animated");
-                            } else {
-                                subDocument = images.getAsJsonObject("unbordered");
-                            }
-
-                            break;
-                        default:
-                            subDocument = null;
-                            break;
-                    }
+        // only visit the renditions present in the document rather than probing for every
+        // combination of border style, format and size
+        for (Map.Entry<String, JsonElement> borderEntry : images.entrySet()) {
+            Map<String, Map<String, RenderingOptions[]>> formats = Renditions.forBorder(borderEntry.getKey());
+            if (formats == null || !borderEntry.getValue().isJsonObject()) {
+                continue;
+            }
 
-                    if (subDocument == null) {
+            for (Map.Entry<String, JsonElement> formatEntry : borderEntry.getValue().getAsJsonObject().entrySet()) {
+                Map<String, RenderingOptions[]> sizes = formats.get(formatEntry.getKey());
+                if (sizes == null || !formatEntry.getValue().isJsonObject()) {
+                    continue;
+                }
+
+                for (Map.Entry<String, JsonElement> sizeEntry : formatEntry.getValue().getAsJsonObject().entrySet()) {
+                    RenderingOptions[] renderingOptions = sizes.get(sizeEntry.getKey());
+                    if (renderingOptions == null || !sizeEntry.getValue().isJsonObject()) {
                         continue;
                     }
 
-                    switch (imageFormat) {
-                        case Png:
-                            subDocument = subDocument.getAsJsonObject("png");
-                            break;
-                        case WebP:
-                        case AnimatedWebp:
-                            subDocument = subDocument.getAsJsonObject("webp");
-                            break;
-                        case AnimatedGif:
-                            subDocument = subDocument.getAsJsonObject("gif");
-                            break;
+                    Imoji.Metadata rendition = deserializeMetadata(sizeEntry.getValue().getAsJsonObject());
+                    for (RenderingOptions options : renderingOptions) {
+                        metadata[options.getOrdinal()] = rendition;
                     }
+                }
+            }
+        }
 
-                    if (subDocument == null) {
-                        continue;
-                    }
+        return new Imoji(identifier, tags, metadata, licenseStyle);
+    }
 
+    private static Imoji.Metadata deserializeMetadata(JsonObject subDocument) {
+        String url = subDocument.get("url").getAsString();
+        int width = 0, height = 0, fileSize = 0;
 
-                    switch (size) {
-                        case Thumbnail:
-                            subDocument = subDocument.getAsJsonObject("150");
-                            break;
-                        case FullResolution:
-                            subDocument = subDocument.getAsJsonObject("1200");
-                            break;
-                        case Resolution320:
-                            subDocument = subDocument.getAsJsonObject("320");
-                            break;
-                        case Resolution512:
-                            subDocument = subDocument.getAsJsonObject("512");
-                            break;
-                    }
+        if (subDocument.has("width")) {
+            JsonElement widthObj = subDocument.get("width");
+            if (widthObj.isJsonPrimitive()) {
+                width = widthObj.getAsInt();
+            }
+        }
 
-                    if (subDocument != null) {
-                        Uri url = Uri.parse(subDocument.get("url").getAsString());
-                        Integer width = null, height = null, fileSize = null;
-
-                        if (subDocument.has("width")) {
-                            JsonElement widthObj = subDocument.get("width");
-                            if (widthObj.isJsonPrimitive()) {
-                                width = widthObj.getAsInt();
-                            }
-                        }
-
-                        if (subDocument.has("height")) {
-                            JsonElement heightObj = subDocument.get("height");
-                            if (heightObj.isJsonPrimitive()) {
-                                height = heightObj.getAsInt();
-                            }
-                        }
-
-                        if (subDocument.has("fileSize")) {
-                            JsonElement fileSizeObj = subDocument.get("fileSize");
-                            if (fileSizeObj.isJsonPrimitive()) {
-                                fileSize = fileSizeObj.getAsInt();
-                            }
-                        }
-
-                        metadataMap.put(
-                                new RenderingOptions(borderStyle, imageFormat, size),
-                                new Imoji.Metadata(
-                                        url,
-                                        width,
-                                        height,
-                                        fileSize
-                                )
-                        );
-                    }
-                }
+        if (subDocument.has("height")) {
+            JsonElement heightObj = subDocument.get("height");
+            if (heightObj.isJsonPrimitive()) {
+                height = heightObj.getAsInt();
+            }
+        }
+
+        if (subDocument.has("fileSize")) {
+            JsonElement fileSizeObj = subDocument.get("fileSize");
+            if (fileSizeObj.isJsonPrimitive()) {
+                fileSize = fileSizeObj.getAsInt();
             }
         }
 
-        return new Imoji(identifier, tags, metadataMap, licenseStyle);
+        return new Imoji.Metadata(url, width, height, fileSize);
     }
 }
@@ -0,0 +1,213 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.objects.RenderingOptions;
+
+/**
+ * Decodes an Imoji straight from the token stream, producing the same objects as
+ * ImojiDeserializer without building an intermediate JsonObject tree.
+ *
+ * Created by agent on 10/17/26.
+ */
+class ImojiTypeAdapter extends TypeAdapter<Imoji> {
+
+    @Override
+    public void write(JsonWriter out, Imoji value) throws IOException {
+        throw new UnsupportedOperationException("ImojiTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public Imoji read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        Fields fields = new Fields();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!fields.read(in.nextName(), in)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return fields.build();
+    }
+
+    /**
+     * The fields of an Imoji. Also used to decode objects which have the fields of an imoji
+     * flattened in along with their own (ex: artists).
+     */
+    static class Fields {
+
+        @Nullable
+        private String imojiId;
+
+        @Nullable
+        String id;
+
+        @NonNull
+        private List<String> tags = Collections.emptyList();
+
+        @Nullable
+        String licenseStyle;
+
+        @NonNull
+        private final Imoji.Metadata[] metadata = new Imoji.Metadata[RenderingOptions.COUNT];
+
+        /**
+         * Reads the value of the named field if it belongs to an Imoji
+         *
+         * @return False if the field is not one of an Imoji's, in which case the value is not consumed
+         */
+        boolean read(@NonNull String name, @NonNull JsonReader in) throws IOException {
+            switch (name) {
+                case "imojiId":
+                    imojiId = JsonReaders.nextStringOrNull(in);
+                    return true;
+                case "id":
+                    id = JsonReaders.nextStringOrNull(in);
+                    return true;
+                case "tags":
+                    tags = JsonReaders.nextStringList(in);
+                    return true;
+                case "licenseStyle":
+                    licenseStyle = JsonReaders.nextStringOrNull(in);
+                    return true;
+                case "images":
+                    readImages(in);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        @NonNull
+        Imoji build() {
+            String identifier = imojiId != null ? imojiId : id;
+            if (identifier == null) {
+                throw new JsonParseException("Imoji is missing its identifier");
+            }
+
+            return new Imoji(identifier, tags, metadata, JsonReaders.licenseStyle(licenseStyle));
+        }
+
+        /**
+         * Walks the renditions present under images, ex: bordered/png/150, skipping any that
+         * don't map to RenderingOptions
+         */
+        private void readImages(@NonNull JsonReader in) throws IOException {
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                in.skipValue();
+                return;
+            }
+
+            in.beginObject();
+            while (in.hasNext()) {
+                Map<String, Map<String, RenderingOptions[]>> formats = Renditions.forBorder(in.nextName());
+                if (formats == null || in.peek() != JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                    continue;
+                }
+
+                in.beginObject();
+                while (in.hasNext()) {
+                    Map<String, RenderingOptions[]> sizes = formats.get(in.nextName());
+                    if (sizes == null || in.peek() != JsonToken.BEGIN_OBJECT) {
+                        in.skipValue();
+                        continue;
+                    }
+
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        RenderingOptions[] renderingOptions = sizes.get(in.nextName());
+                        if (renderingOptions == null || in.peek() != JsonToken.BEGIN_OBJECT) {
+                            in.skipValue();
+                            continue;
+                        }
+
+                        Imoji.Metadata rendition = readMetadata(in);
+                        for (RenderingOptions options : renderingOptions) {
+                            metadata[options.getOrdinal()] = rendition;
+                        }
+                    }
+                    in.endObject();
+                }
+                in.endObject();
+            }
+            in.endObject();
+        }
+
+        @NonNull
+        private static Imoji.Metadata readMetadata(@NonNull JsonReader in) throws IOException {
+            String url = null;
+            int width = 0, height = 0, fileSize = 0;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "url":
+                        url = JsonReaders.nextStringOrNull(in);
+                        break;
+                    case "width":
+                        width = JsonReaders.nextIntOrZero(in);
+                        break;
+                    case "height":
+                        height = JsonReaders.nextIntOrZero(in);
+                        break;
+                    case "fileSize":
+                        fileSize = JsonReaders.nextIntOrZero(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+
+            if (url == null) {
+                throw new JsonParseException("Imoji rendition is missing its url");
+            }
+
+            return new Imoji.Metadata(url, width, height, fileSize);
+        }
+    }
+}
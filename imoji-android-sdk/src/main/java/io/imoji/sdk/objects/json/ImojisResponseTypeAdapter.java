@@ -0,0 +1,154 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.imoji.sdk.ImojiResultListener;
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.response.ImojisResponse;
+
+/**
+ * Decodes an ImojisResponse straight from the token stream. When created with lazy decoding the
+ * imojis and related categories are only copied into a compact buffer and decoded as they are
+ * accessed, avoiding the work of decoding results that are never displayed.
+ *
+ * Created by agent on 10/17/26.
+ */
+class ImojisResponseTypeAdapter extends TypeAdapter<ImojisResponse> {
+
+    private final ImojiTypeAdapter imojiTypeAdapter = new ImojiTypeAdapter();
+
+    private final CategoryTypeAdapter categoryTypeAdapter = new CategoryTypeAdapter();
+
+    private final boolean lazy;
+
+    @Nullable
+    private final ImojiResultListener listener;
+
+    ImojisResponseTypeAdapter() {
+        this(false);
+    }
+
+    /**
+     * @param lazy Whether to decode the imojis and related categories on first access
+     */
+    ImojisResponseTypeAdapter(boolean lazy) {
+        this(lazy, null);
+    }
+
+    /**
+     * @param lazy     Whether to decode the related categories on first access, imojis are always
+     *                 decoded immediately when there is a listener
+     * @param listener Notified of each imoji as soon as it has been decoded
+     */
+    ImojisResponseTypeAdapter(boolean lazy, @Nullable ImojiResultListener listener) {
+        this.lazy = lazy;
+        this.listener = listener;
+    }
+
+    @Override
+    public void write(JsonWriter out, ImojisResponse value) throws IOException {
+        throw new UnsupportedOperationException("ImojisResponseTypeAdapter only supports decoding, see DecodingTypeAdapterFactory");
+    }
+
+    @Override
+    public ImojisResponse read(JsonReader in) throws IOException {
+        if (JsonReaders.skipNull(in)) {
+            return null;
+        }
+
+        List<Imoji> imojis = null;
+        String followupSearchTerm = null;
+        List<Category> relatedCategories = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("followupSearchTerm".equals(name)) {
+                followupSearchTerm = JsonReaders.nextStringOrNull(in);
+            } else if ("results".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                imojis = listener != null ? readAndReportImojis(in, listener) : readArray(in, imojiTypeAdapter);
+            } else if ("relatedCategories".equals(name) && in.peek() == JsonToken.BEGIN_ARRAY) {
+                relatedCategories = readArray(in, categoryTypeAdapter);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new ImojisResponse(
+                imojis != null ? imojis : new ArrayList<Imoji>(),
+                followupSearchTerm,
+                relatedCategories != null ? relatedCategories : new ArrayList<Category>()
+        );
+    }
+
+    private List<Imoji> readAndReportImojis(JsonReader in, ImojiResultListener listener) throws IOException {
+        List<Imoji> imojis = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            Imoji imoji = imojiTypeAdapter.read(in);
+            if (imoji != null) {
+                listener.onImoji(imoji, imojis.size());
+            }
+
+            imojis.add(imoji);
+        }
+        in.endArray();
+
+        return imojis;
+    }
+
+    private <E> List<E> readArray(JsonReader in, TypeAdapter<E> typeAdapter) throws IOException {
+        in.beginArray();
+        if (lazy) {
+            LazilyDecodedList.Builder<E> builder = new LazilyDecodedList.Builder<>(typeAdapter);
+            while (in.hasNext()) {
+                builder.add(in);
+            }
+            in.endArray();
+
+            return builder.build();
+        }
+
+        List<E> elements = new ArrayList<>();
+        while (in.hasNext()) {
+            elements.add(typeAdapter.read(in));
+        }
+        in.endArray();
+
+        return elements;
+    }
+}
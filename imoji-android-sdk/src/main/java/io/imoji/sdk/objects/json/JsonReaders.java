@@ -0,0 +1,183 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.imoji.sdk.objects.Category;
+import io.imoji.sdk.objects.Imoji;
+
+/**
+ * Helpers shared by the streaming type adapters
+ *
+ * Created by agent on 10/17/26.
+ */
+final class JsonReaders {
+
+    static final Map<String, Category.URLCategory> URL_CATEGORY_MAP;
+
+    static {
+        Map<String, Category.URLCategory> urlCategoryMap = new HashMap<>();
+        urlCategoryMap.put("website", Category.URLCategory.Website);
+        urlCategoryMap.put("app store", Category.URLCategory.AppStore);
+        urlCategoryMap.put("twitter", Category.URLCategory.Twitter);
+        urlCategoryMap.put("instagram", Category.URLCategory.Instagram);
+        urlCategoryMap.put("video", Category.URLCategory.Video);
+
+        URL_CATEGORY_MAP = Collections.unmodifiableMap(urlCategoryMap);
+    }
+
+    private JsonReaders() {
+    }
+
+    @Nullable
+    static String nextStringOrNull(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        return in.nextString();
+    }
+
+    /**
+     * @return The next value as an int, 0 if it is not a number
+     */
+    static int nextIntOrZero(@NonNull JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            return in.nextInt();
+        }
+
+        in.skipValue();
+        return 0;
+    }
+
+    /**
+     * @return The strings of the next array, interned with the shared StringInterner
+     */
+    @NonNull
+    static List<String> nextStringList(@NonNull JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            in.skipValue();
+            return Collections.emptyList();
+        }
+
+        List<String> strings = null;
+        in.beginArray();
+        while (in.hasNext()) {
+            if (strings == null) {
+                strings = new ArrayList<>();
+            }
+
+            strings.add(StringInterner.getInstance().intern(in.nextString()));
+        }
+        in.endArray();
+
+        return strings != null ? strings : Collections.<String>emptyList();
+    }
+
+    /**
+     * Skips the next value if it is null
+     *
+     * @return True if the value was null
+     */
+    static boolean skipNull(@NonNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Copies the next value token by token without materializing it, dropping any whitespace
+     */
+    static void copyValue(@NonNull JsonReader in, @NonNull JsonWriter out) throws IOException {
+        int depth = 0;
+        do {
+            JsonToken token = in.peek();
+            switch (token) {
+                case BEGIN_ARRAY:
+                    in.beginArray();
+                    out.beginArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    in.endArray();
+                    out.endArray();
+                    depth--;
+                    break;
+                case BEGIN_OBJECT:
+                    in.beginObject();
+                    out.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    in.endObject();
+                    out.endObject();
+                    depth--;
+                    break;
+                case NAME:
+                    out.name(in.nextName());
+                    break;
+                case STRING:
+                    out.value(in.nextString());
+                    break;
+                case NUMBER:
+                    out.jsonValue(in.nextString());
+                    break;
+                case BOOLEAN:
+                    out.value(in.nextBoolean());
+                    break;
+                case NULL:
+                    in.nextNull();
+                    out.nullValue();
+                    break;
+                default:
+                    throw new JsonParseException("Unexpected " + token + " while copying a value");
+            }
+        } while (depth > 0);
+    }
+
+    @NonNull
+    static Imoji.LicenseStyle licenseStyle(@Nullable String licenseStyle) {
+        return "commercialPrint".equals(licenseStyle) ?
+                Imoji.LicenseStyle.CommercialPrint : Imoji.LicenseStyle.NonCommercial;
+    }
+}
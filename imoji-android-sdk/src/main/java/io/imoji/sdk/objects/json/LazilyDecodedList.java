@@ -0,0 +1,156 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.CharArrayReader;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A read only list which keeps the JSON of its elements in a single compact buffer and only
+ * decodes an element the first time it is accessed. Decoded elements are kept for subsequent
+ * calls.
+ *
+ * Created by agent on 10/17/26.
+ *
+ * @param <E> The type of the elements
+ */
+final class LazilyDecodedList<E> extends AbstractList<E> implements RandomAccess {
+
+    @NonNull
+    private final TypeAdapter<E> typeAdapter;
+
+    /**
+     * The JSON of all elements stored back to back without whitespace
+     */
+    @NonNull
+    private final char[] buffer;
+
+    /**
+     * Element i spans buffer[offsets[i]] to buffer[offsets[i + 1]]
+     */
+    @NonNull
+    private final int[] offsets;
+
+    /**
+     * Decoded elements, racing threads may both decode an element but will store equal values
+     */
+    @NonNull
+    private final Object[] elements;
+
+    private LazilyDecodedList(@NonNull TypeAdapter<E> typeAdapter,
+                              @NonNull char[] buffer,
+                              @NonNull int[] offsets,
+                              int size) {
+        this.typeAdapter = typeAdapter;
+        this.buffer = buffer;
+        this.offsets = offsets;
+        this.elements = new Object[size];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + elements.length);
+        }
+
+        E element = (E) elements[index];
+        if (element == null) {
+            int start = offsets[index];
+            try {
+                element = typeAdapter.read(new JsonReader(
+                        new CharArrayReader(buffer, start, offsets[index + 1] - start)
+                ));
+            } catch (IOException e) {
+                throw new JsonParseException("Unable to decode element " + index, e);
+            }
+
+            elements[index] = element;
+        }
+
+        return element;
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * Collects the JSON of the elements of an array as it is being read
+     */
+    static final class Builder<E> {
+
+        @NonNull
+        private final TypeAdapter<E> typeAdapter;
+
+        @NonNull
+        private final CharArrayWriter buffer = new CharArrayWriter();
+
+        @NonNull
+        private final JsonWriter writer = new JsonWriter(buffer);
+
+        @NonNull
+        private int[] offsets = new int[16];
+
+        private int size;
+
+        Builder(@NonNull TypeAdapter<E> typeAdapter) {
+            this.typeAdapter = typeAdapter;
+
+            // elements are written one after another as separate top level values
+            this.writer.setLenient(true);
+        }
+
+        /**
+         * Copies the next value of the reader as an element of the list
+         */
+        void add(@NonNull JsonReader in) throws IOException {
+            JsonReaders.copyValue(in, writer);
+            writer.flush();
+
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+
+            offsets[++size] = buffer.size();
+        }
+
+        @NonNull
+        LazilyDecodedList<E> build() {
+            return new LazilyDecodedList<>(typeAdapter, buffer.toCharArray(), offsets, size);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.imoji.sdk.objects.RenderingOptions;
+
+/**
+ * Maps the paths of the renditions listed under an imoji's images document, ex:
+ * bordered/webp/150, to the RenderingOptions they are served for. A single rendition can serve
+ * more than one set of options (bordered webp images are used for both WebP and AnimatedWebp).
+ * Precomputed once so that decoding only visits the renditions that are actually present.
+ *
+ * Created by agent on 10/17/26.
+ */
+final class Renditions {
+
+    /**
+     * Border key, format key and size key to the options served by that rendition
+     */
+    private static final Map<String, Map<String, Map<String, RenderingOptions[]>>> RENDITIONS;
+
+    static {
+        Map<String, Map<String, Map<String, RenderingOptions[]>>> renditions = new HashMap<>();
+
+        for (RenderingOptions.BorderStyle borderStyle : RenderingOptions.BorderStyle.values()) {
+            for (RenderingOptions.ImageFormat imageFormat : RenderingOptions.ImageFormat.values()) {
+                for (RenderingOptions.Size size : RenderingOptions.Size.values()) {
+                    String borderKey = borderKey(borderStyle, imageFormat);
+                    if (borderKey == null) {
+                        continue;
+                    }
+
+                    Map<String, Map<String, RenderingOptions[]>> formats = renditions.get(borderKey);
+                    if (formats == null) {
+                        formats = new HashMap<>();
+                        renditions.put(borderKey, formats);
+                    }
+
+                    Map<String, RenderingOptions[]> sizes = formats.get(formatKey(imageFormat));
+                    if (sizes == null) {
+                        sizes = new HashMap<>();
+                        formats.put(formatKey(imageFormat), sizes);
+                    }
+
+                    RenderingOptions renderingOptions = RenderingOptions.get(borderStyle, imageFormat, size);
+                    RenderingOptions[] existing = sizes.get(sizeKey(size));
+                    if (existing == null) {
+                        sizes.put(sizeKey(size), new RenderingOptions[]{renderingOptions});
+                    } else {
+                        RenderingOptions[] combined = new RenderingOptions[existing.length + 1];
+                        System.arraycopy(existing, 0, combined, 0, existing.length);
+                        combined[existing.length] = renderingOptions;
+                        sizes.put(sizeKey(size), combined);
+                    }
+                }
+            }
+        }
+
+        RENDITIONS = Collections.unmodifiableMap(renditions);
+    }
+
+    private Renditions() {
+    }
+
+    /**
+     * @param borderKey A key of the images document, ex: bordered
+     * @return The renditions of the border style keyed by format and size, null if unknown
+     */
+    @Nullable
+    static Map<String, Map<String, RenderingOptions[]>> forBorder(@NonNull String borderKey) {
+        return RENDITIONS.get(borderKey);
+    }
+
+    @Nullable
+    private static String borderKey(@NonNull RenderingOptions.BorderStyle borderStyle,
+                                    @NonNull RenderingOptions.ImageFormat imageFormat) {
+        switch (borderStyle) {
+            case Sticker:
+                return "bordered";
+            case None:
+                if (imageFormat == RenderingOptions.ImageFormat.AnimatedGif ||
+                        imageFormat == RenderingOptions.ImageFormat.AnimatedWebp) {
+                    return "animated";
+                }
+
+                return "unbordered";
+            default:
+                return null;
+        }
+    }
+
+    @NonNull
+    private static String formatKey(@NonNull RenderingOptions.ImageFormat imageFormat) {
+        switch (imageFormat) {
+            case Png:
+                return "png";
+            case AnimatedGif:
+                return "gif";
+            case WebP:
+            case AnimatedWebp:
+            default:
+                return "webp";
+        }
+    }
+
+    @NonNull
+    private static String sizeKey(@NonNull RenderingOptions.Size size) {
+        switch (size) {
+            case Thumbnail:
+                return "150";
+            case Resolution320:
+                return "320";
+            case Resolution512:
+                return "512";
+            case FullResolution:
+            default:
+                return "1200";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Imoji Android SDK
+ * Created by nkhoshini
+ *
+ * Copyright (C) 2016 Imoji
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to
+ * deal in the Software without restriction, including without limitation the
+ * rights to use, copy, modify, merge, publish, distribute, sublicense, and/or
+ * sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KID, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING
+ * FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS
+ * IN THE SOFTWARE.
+ *
+ */
+
+package io.imoji.sdk.objects.json;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Shares a single instance of strings that repeat across responses, such as tags, so that every
+ * decoded imoji does not hold its own copies. Entries are only weakly referenced and disappear
+ * once no decoded object uses them anymore. The number of entries is bounded, strings seen once
+ * the interner is full are returned as is.
+ *
+ * Created by agent on 10/17/26.
+ */
+public final class StringInterner {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * Approximate size of a String and its backing array excluding the characters themselves
+     */
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private static final StringInterner INSTANCE = new StringInterner(DEFAULT_MAX_SIZE);
+
+    @NonNull
+    private final WeakHashMap<String, WeakReference<String>> strings = new WeakHashMap<>();
+
+    private final int maxSize;
+
+    private long bytesSaved;
+
+    StringInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return The interner shared by all decoders
+     */
+    @NonNull
+    public static StringInterner getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param string The string to intern
+     * @return A previously interned string equal to the supplied one, otherwise the string itself
+     */
+    @Nullable
+    public synchronized String intern(@Nullable String string) {
+        if (string == null) {
+            return null;
+        }
+
+        WeakReference<String> reference = strings.get(string);
+        String interned = reference != null ? reference.get() : null;
+        if (interned != null) {
+            bytesSaved += STRING_OVERHEAD_BYTES + 2L * string.length();
+            return interned;
+        }
+
+        // size() also purges the entries of strings which have been collected
+        if (strings.size() < maxSize) {
+            strings.put(string, new WeakReference<>(string));
+        }
+
+        return string;
+    }
+
+    /**
+     * @return The number of strings currently interned
+     */
+    public synchronized int size() {
+        return strings.size();
+    }
+
+    /**
+     * @return An estimate of the bytes of duplicate strings that were not retained, totalled since
+     * the interner was created. Duplicates are still allocated while decoding but are immediately
+     * garbage.
+     */
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+}
@@ -23,15 +23,24 @@
 
 package io.imoji.sdk.response;
 
+import android.os.BadParcelableException;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import io.imoji.sdk.objects.Category;
 import io.imoji.sdk.objects.Imoji;
+import io.imoji.sdk.objects.ImojiCodec;
 
+import java.io.IOException;
 import java.util.List;
 
-public class ImojisResponse implements ApiResponse {
+/**
+ * The results of a search, featured, collection or fetch by identifier call. Parcels with
+ * ImojiCodec rather than parceling each Imoji individually.
+ */
+public class ImojisResponse implements ApiResponse, Parcelable {
 
     @NonNull
     private final List<Imoji> imojis;
@@ -74,4 +83,32 @@ public class ImojisResponse implements ApiResponse {
     public List<Category> getRelatedCategories() {
         return relatedCategories;
     }
+
+    /**
+     * Parcelable Overrides
+     */
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeByteArray(ImojiCodec.encode(this));
+    }
+
+    public static final Parcelable.Creator<ImojisResponse> CREATOR
+            = new Parcelable.Creator<ImojisResponse>() {
+        public ImojisResponse createFromParcel(Parcel in) {
+            try {
+                return ImojiCodec.decodeImojisResponse(in.createByteArray());
+            } catch (IOException e) {
+                throw new BadParcelableException(e);
+            }
+        }
+
+        public ImojisResponse[] newArray(int size) {
+            return new ImojisResponse[size];
+        }
+    };
 }